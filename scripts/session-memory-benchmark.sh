@@ -0,0 +1,74 @@
+#!/usr/bin/env bash
+# Redis 메모리: 세션 1개당 byte 수를 이전 형식과 SessionRecordCodec 형식으로 비교
+#
+#   이전 (user-020 이전 save_session.lua):
+#     session:<n>            = "<accountId>,<accountId>"  EX ttl
+#     acct_sessions:{<acct>} = SET { "session:<n>" }       EXPIRE ttl
+#   이후:
+#     session:{acct:<acct>}  = 44 byte 고정 길이 record    EX ttl
+#
+# 비어 있는 전용 DB 에 각 형식으로 N 개 세션을 넣고 INFO memory 의 used_memory 증가분 / N 을 출력.
+# (key, value, expires dict 항목과 allocator 반올림까지 포함된 값; 표본 key 의 MEMORY USAGE 도 함께 출력)
+#
+#   REDIS_HOST=localhost REDIS_PORT=6379 REDIS_DB=15 SESSIONS=1000000 scripts/session-memory-benchmark.sh
+set -euo pipefail
+
+REDIS_HOST=${REDIS_HOST:-localhost}
+REDIS_PORT=${REDIS_PORT:-6379}
+REDIS_DB=${REDIS_DB:-15}
+SESSIONS=${SESSIONS:-1000000}
+TTL=${TTL:-1800}
+FIRST_ACCOUNT_ID=1000000000
+
+cli() {
+    redis-cli -h "$REDIS_HOST" -p "$REDIS_PORT" -n "$REDIS_DB" "$@"
+}
+
+used_memory() {
+    cli INFO memory | tr -d '\r' | awk -F: '$1 == "used_memory" { print $2 }'
+}
+
+if [ "$(cli DBSIZE)" != "0" ]; then
+    echo "DB $REDIS_DB is not empty; point REDIS_DB at an unused database" >&2
+    exit 1
+fi
+
+legacy_commands() {
+    awk -v n="$SESSIONS" -v first="$FIRST_ACCOUNT_ID" -v ttl="$TTL" 'BEGIN {
+        for (i = 0; i < n; i++) {
+            acct = first + i
+            printf "SET session:%d %d,%d EX %d\n", i + 1, acct, acct, ttl
+            printf "SADD acct_sessions:{%d} session:%d\n", acct, i + 1
+            printf "EXPIRE acct_sessions:{%d} %d\n", acct, ttl
+        }
+    }'
+}
+
+record_commands() {
+    # 값의 내용은 메모리에 영향이 없으므로 44 byte (SessionRecordCodec.RECORD_LENGTH) 출력 가능한 문자열로 대신함
+    awk -v n="$SESSIONS" -v first="$FIRST_ACCOUNT_ID" -v ttl="$TTL" 'BEGIN {
+        for (i = 0; i < n; i++) {
+            acct = first + i
+            printf "SET session:{acct:%d} %044d EX %d\n", acct, acct, ttl
+        }
+    }'
+}
+
+measure() {
+    local name=$1 generator=$2
+    shift 2
+    local before after key
+    before=$(used_memory)
+    $generator | cli --pipe > /dev/null
+    after=$(used_memory)
+    printf '%-8s %12d bytes total  %8.1f bytes/session\n' \
+        "$name" "$((after - before))" "$(echo "($after - $before) / $SESSIONS" | bc -l)"
+    for key in "$@"; do
+        printf '         MEMORY USAGE %s = %s\n' "$key" "$(cli MEMORY USAGE "$key" SAMPLES 0)"
+    done
+    cli FLUSHDB > /dev/null
+}
+
+echo "sessions=$SESSIONS db=$REDIS_DB ($(cli INFO server | tr -d '\r' | grep '^redis_version:'))"
+measure legacy legacy_commands "session:1" "acct_sessions:{$FIRST_ACCOUNT_ID}"
+measure record record_commands "session:{acct:$FIRST_ACCOUNT_ID}"
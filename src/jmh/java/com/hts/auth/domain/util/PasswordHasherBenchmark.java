@@ -0,0 +1,44 @@
+package com.hts.auth.domain.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one login-path PasswordHasher.verify per password.hash.iterations setting.
+ * verifySingle is the per-core latency (login p50 floor). verifyAllCores runs one caller per available
+ * processor, matching the core-sized hashing executor in PasswordService, so
+ * ops/s ≈ the login ceiling of one pod at that cost:
+ *   ./gradlew jmh -PjmhIncludes=PasswordHasherBenchmark
+ */
+@State(Scope.Benchmark)
+public class PasswordHasherBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"100000", "310000", "600000"})
+    int iterations;
+
+    private String stored;
+
+    @Setup
+    public void setUp() {
+        stored = PasswordHasher.hashPbkdf2(PASSWORD, iterations);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Threads(1)
+    public boolean verifySingle() {
+        return PasswordHasher.verify(PASSWORD, stored);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(Threads.MAX)
+    public boolean verifyAllCores() {
+        return PasswordHasher.verify(PASSWORD, stored);
+    }
+}
@@ -0,0 +1,67 @@
+package com.hts.auth.domain.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Session id generation throughput, uncontended and with one caller per processor.
+ * perThread is SessionIdGenerator (one DRBG per thread). sharedSecureRandom encodes the same 128-bit id from a
+ * single SecureRandom, and randomUuid is UUID.randomUUID(), which also shares one SecureRandom; both show what
+ * the ThreadLocal avoids under contention:
+ *   ./gradlew jmh -PjmhIncludes=SessionIdGeneratorBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SessionIdGeneratorBenchmark {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final SecureRandom shared = new SecureRandom();
+
+    @Benchmark
+    @Threads(1)
+    public String perThread() {
+        return SessionIdGenerator.next();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String sharedSecureRandom() {
+        return sharedId();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UUID randomUuid() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String perThreadContended() {
+        return SessionIdGenerator.next();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String sharedSecureRandomContended() {
+        return sharedId();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public UUID randomUuidContended() {
+        return UUID.randomUUID();
+    }
+
+    private String sharedId() {
+        byte[] bytes = new byte[16];
+        shared.nextBytes(bytes);
+        return ENCODER.encodeToString(bytes);
+    }
+}
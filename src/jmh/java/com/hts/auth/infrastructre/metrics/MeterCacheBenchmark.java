@@ -0,0 +1,94 @@
+package com.hts.auth.infrastructre.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request metrics overhead: building and registering meters on every call (before) vs. resolving
+ * them through MeterCache (after). Both record one counter increment and one timer sample, like
+ * CommandMetrics.record. Run with the gc profiler (enabled in build.gradle) to compare gc.alloc.rate.norm.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class MeterCacheBenchmark {
+
+    private static final String[] OPS = {"LOGIN", "LOGOUT", "LOGIN_QUEUE"};
+    private static final String[] RESULTS = {"SUCCESS", "INVALID_CREDENTIALS", "ACCOUNT_LOCKED"};
+
+    private MeterRegistry registry;
+    private CommandMetrics cached;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        int advance() {
+            next = (next + 1) % (OPS.length * RESULTS.length);
+            return next;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        cached = new CommandMetrics(registry);
+        // 두 방식 모두 같은 meter 를 이미 등록한 상태에서 측정 (등록 비용이 아닌 조회 비용 비교)
+        for (String op : OPS) {
+            for (String result : RESULTS) {
+                cached.record(op, result, 1);
+                builderPerCall(op, result, 1);
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void builderPerCall(Cursor cursor) {
+        int i = cursor.advance();
+        builderPerCall(OPS[i / RESULTS.length], RESULTS[i % RESULTS.length], 1_000);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void meterCache(Cursor cursor) {
+        int i = cursor.advance();
+        cached.record(OPS[i / RESULTS.length], RESULTS[i % RESULTS.length], 1_000);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void builderPerCallContended(Cursor cursor) {
+        builderPerCall(cursor);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void meterCacheContended(Cursor cursor) {
+        meterCache(cursor);
+    }
+
+    /**
+     * user-008 이전 CommandMetrics.record 와 같은 방식
+     */
+    private void builderPerCall(String op, String result, long durationNanos) {
+        Counter.builder("auth_command_total")
+                .description("Total command executions")
+                .tag("op", op)
+                .tag("result", result)
+                .register(registry)
+                .increment();
+        Timer.builder("auth_command_latency_seconds")
+                .description("Command execution latency")
+                .tag("op", op)
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+}
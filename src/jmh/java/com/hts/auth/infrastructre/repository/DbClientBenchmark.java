@@ -0,0 +1,179 @@
+package com.hts.auth.infrastructre.repository;
+
+import io.vertx.core.Vertx;
+import io.vertx.pgclient.PgBuilder;
+import io.vertx.pgclient.PgConnectOptions;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Tuple;
+import io.vertx.sqlclient.PoolOptions;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.jooq.impl.DSL.field;
+import static org.jooq.impl.DSL.table;
+
+/**
+ * findByAccountId throughput on both db.client modes at the same fixed pool size, with 64 concurrent callers.
+ * JDBC: jOOQ on a fixed connection pool, run on a worker pool of the same size (BlockingExecutor WORKER mode),
+ * so each call pays the worker hand-off and holds a connection for the whole round trip.
+ * REACTIVE: the Vert.x PG pool with the same pipelining-limit as application.properties; callers only wait.
+ *
+ * Needs a migrated database. Connection settings come from the same environment variables as
+ * application.properties (DB_ADDR, DB_NAME, DB_URL, DB_REACTIVE_URL, DB_USER, DB_PASSWORD), which JMH forks inherit:
+ *   DB_ADDR=localhost:5432 ./gradlew jmh -PjmhIncludes=DbClientBenchmark
+ * Benchmark rows use account_id >= 9_000_000_000 and are deleted on teardown.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Threads(64)
+public class DbClientBenchmark {
+
+    private static final long FIRST_ACCOUNT_ID = 9_000_000_000L;
+    private static final int ACCOUNTS = 10_000;
+    private static final String FIND_BY_ACCOUNT_ID =
+            "SELECT account_id, password_hash, status, failed_attempts, locked_until FROM accounts WHERE account_id = $1";
+
+    @Param({"4", "16"})
+    int poolSize;
+
+    private BlockingQueue<Connection> jdbcPool;
+    private ExecutorService workers;
+    private Vertx vertx;
+    private Pool reactivePool;
+
+    @Setup
+    public void setUp() throws SQLException {
+        String database = env("DB_ADDR", "localhost:5432") + "/" + env("DB_NAME", "hts_auth");
+        String url = env("DB_URL", "jdbc:postgresql://" + database);
+        String reactiveUrl = env("DB_REACTIVE_URL", "postgresql://" + database);
+        String user = env("DB_USER", "hts");
+        String password = env("DB_PASSWORD", "hts");
+
+        jdbcPool = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            jdbcPool.add(DriverManager.getConnection(url, user, password));
+        }
+        workers = Executors.newFixedThreadPool(poolSize);
+        seed();
+
+        vertx = Vertx.vertx();
+        PgConnectOptions connectOptions = PgConnectOptions.fromUri(reactiveUrl)
+                .setUser(user)
+                .setPassword(password)
+                .setPipeliningLimit(256)
+                .setCachePreparedStatements(true);
+        reactivePool = Pool.newInstance(PgBuilder.pool()
+                .with(new PoolOptions().setMaxSize(poolSize))
+                .connectingTo(connectOptions)
+                .using(vertx)
+                .build());
+        // 측정 전에 연결을 모두 열어 둠 (JDBC 쪽과 같은 조건)
+        for (int i = 0; i < poolSize; i++) {
+            reactivePool.preparedQuery(FIND_BY_ACCOUNT_ID).execute(Tuple.of(FIRST_ACCOUNT_ID))
+                    .await().atMost(Duration.ofSeconds(5));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        reactivePool.closeAndAwait();
+        vertx.close().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+        workers.shutdown();
+        Connection connection = jdbcPool.take();
+        try (PreparedStatement ps = connection.prepareStatement(
+                "DELETE FROM accounts WHERE account_id >= ? AND account_id < ?")) {
+            ps.setLong(1, FIRST_ACCOUNT_ID);
+            ps.setLong(2, FIRST_ACCOUNT_ID + ACCOUNTS);
+            ps.executeUpdate();
+        }
+        connection.close();
+        for (Connection c : jdbcPool) {
+            c.close();
+        }
+    }
+
+    @Benchmark
+    public void jdbc(Blackhole bh) throws Exception {
+        long accountId = nextAccountId();
+        bh.consume(CompletableFuture.supplyAsync(() -> findJdbc(accountId), workers).get());
+    }
+
+    @Benchmark
+    public void reactive(Blackhole bh) {
+        bh.consume(reactivePool.preparedQuery(FIND_BY_ACCOUNT_ID)
+                .execute(Tuple.of(nextAccountId()))
+                .map(rows -> rows.iterator().hasNext() ? rows.iterator().next().getString("password_hash") : null)
+                .await().atMost(Duration.ofSeconds(5)));
+    }
+
+    /**
+     * AuthReadRepository.findByAccountId 와 같은 jOOQ 쿼리
+     */
+    private String findJdbc(long accountId) {
+        Connection connection;
+        try {
+            connection = jdbcPool.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        try {
+            DSLContext dsl = DSL.using(connection, SQLDialect.POSTGRES);
+            Record record = dsl.select(
+                            field("account_id", Long.class),
+                            field("password_hash", String.class),
+                            field("status", String.class),
+                            field("failed_attempts", Integer.class),
+                            field("locked_until", Timestamp.class)
+                    )
+                    .from(table("accounts"))
+                    .where(field("account_id").eq(accountId))
+                    .fetchOne();
+            return record != null ? record.get(field("password_hash", String.class)) : null;
+        } finally {
+            jdbcPool.add(connection);
+        }
+    }
+
+    private void seed() throws SQLException {
+        Connection connection = jdbcPool.poll();
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO accounts (account_id, password_hash, status, failed_attempts) " +
+                "SELECT id, 'bench', 'ACTIVE', 0 FROM generate_series(?::bigint, ?::bigint) AS id " +
+                "ON CONFLICT DO NOTHING")) {
+            ps.setLong(1, FIRST_ACCOUNT_ID);
+            ps.setLong(2, FIRST_ACCOUNT_ID + ACCOUNTS - 1);
+            ps.executeUpdate();
+        } finally {
+            jdbcPool.add(connection);
+        }
+    }
+
+    private static long nextAccountId() {
+        return FIRST_ACCOUNT_ID + ThreadLocalRandom.current().nextInt(ACCOUNTS);
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null ? value : defaultValue;
+    }
+}
@@ -4,10 +4,14 @@ import com.hts.auth.domain.model.ServiceResult;
 import com.hts.auth.domain.service.AuthCommandService;
 import com.hts.auth.domain.service.AuthQueryService;
 import com.hts.generated.grpc.client.*;
+import io.grpc.Status;
 import io.quarkus.grpc.GrpcService;
+import io.smallrye.mutiny.TimeoutException;
 import io.smallrye.mutiny.Uni;
 import jakarta.inject.Inject;
 
+import java.util.concurrent.RejectedExecutionException;
+
 @GrpcService
 public class AuthClientGrpcService implements AuthClientService {
 
@@ -21,7 +25,13 @@ public class AuthClientGrpcService implements AuthClientService {
                         request.getPassword(),
                         request.getIpAddr()
                 )
-                .map(this::toReply);
+                .map(this::toReply)
+                // 해싱 큐 포화 / 계정별 대기 초과: 클라이언트가 backoff 할 수 있도록 RESOURCE_EXHAUSTED
+                .onFailure(RejectedExecutionException.class).transform(e ->
+                        Status.RESOURCE_EXHAUSTED.withDescription("Login capacity exceeded").asRuntimeException())
+                // 계정별 mailbox 의 task-timeout 초과
+                .onFailure(TimeoutException.class).transform(e ->
+                        Status.DEADLINE_EXCEEDED.withDescription("Login timed out").asRuntimeException());
     }
 
     @Override
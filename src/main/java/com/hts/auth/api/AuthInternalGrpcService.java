@@ -2,17 +2,45 @@ package com.hts.auth.api;
 
 import com.hts.auth.domain.model.ServiceResult;
 import com.hts.auth.domain.service.AuthQueryService;
+import com.hts.auth.infrastructre.grpc.StreamBatcher;
+import com.hts.auth.infrastructre.metrics.GrpcMetrics;
 import com.hts.generated.grpc.internal.AuthInternalService;
 import com.hts.generated.grpc.internal.ValidateSessionReply;
 import com.hts.generated.grpc.internal.ValidateSessionRequest;
+import com.hts.generated.grpc.internal.ValidateSessionStreamReply;
+import com.hts.generated.grpc.internal.ValidateSessionStreamRequest;
+import com.hts.generated.grpc.internal.ValidateSessionsReply;
+import com.hts.generated.grpc.internal.ValidateSessionsRequest;
 import io.quarkus.grpc.GrpcService;
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 @GrpcService
 public class AuthInternalGrpcService implements AuthInternalService {
 
+    private static final String STREAM_METHOD = "auth.internal.AuthInternalService/ValidateSessionStream";
+
     @Inject AuthQueryService queryService;
+    @Inject GrpcMetrics grpcMetrics;
+
+    @ConfigProperty(name = "grpc.validate-stream.batch-size", defaultValue = "64")
+    int streamBatchSize;
+
+    @ConfigProperty(name = "grpc.validate-stream.batch-window.ms", defaultValue = "1")
+    long streamBatchWindowMs;
+
+    @ConfigProperty(name = "grpc.validate-stream.max-in-flight-batches", defaultValue = "4")
+    int streamMaxInFlightBatches;
+
+    @ConfigProperty(name = "grpc.validate-stream.max-buffered", defaultValue = "128")
+    int streamMaxBuffered;
 
     @Override
     public Uni<ValidateSessionReply> validateSession(ValidateSessionRequest request) {
@@ -20,10 +48,64 @@ public class AuthInternalGrpcService implements AuthInternalService {
                 .map(this::toValidateSessionReply);
     }
 
+    @Override
+    public Uni<ValidateSessionsReply> validateSessions(ValidateSessionsRequest request) {
+        return queryService.validateSessions(request.getSessionIdsList())
+                .map(results -> {
+                    ValidateSessionsReply.Builder reply = ValidateSessionsReply.newBuilder();
+                    for (ServiceResult result : results) {
+                        reply.addResults(toValidateSessionReply(result));
+                    }
+                    return reply.build();
+                });
+    }
+
+    /**
+     * 스트림으로 들어온 요청을 batch-size / batch-window 단위로 묶어 파이프라인 조회.
+     * 동시에 처리 중인 배치 수를 제한해 Redis 가 느려지면 upstream demand 가 멈춘다 (backpressure).
+     * 배치는 downstream demand 가 있을 때만 만들어지고, 그 사이 요청은 최대 max-buffered 개까지만 받아 둔다.
+     */
+    @Override
+    public Multi<ValidateSessionStreamReply> validateSessionStream(Multi<ValidateSessionStreamRequest> requests) {
+        return requests
+                .map(request -> new PendingValidation(request, System.nanoTime()))
+                .plug(pending -> StreamBatcher.batch(pending, streamBatchSize, Duration.ofMillis(streamBatchWindowMs),
+                        Math.max(streamBatchSize, streamMaxBuffered), Infrastructure.getDefaultWorkerPool()))
+                .onItem().transformToUni(this::validateBatch).merge(streamMaxInFlightBatches)
+                .onItem().disjoint();
+    }
+
+    private Uni<List<ValidateSessionStreamReply>> validateBatch(List<PendingValidation> batch) {
+        List<String> sessionIds = new ArrayList<>(batch.size());
+        for (PendingValidation pending : batch) {
+            sessionIds.add(pending.request().getSessionId());
+        }
+
+        return queryService.validateSessions(sessionIds)
+                .map(results -> {
+                    long now = System.nanoTime();
+                    List<ValidateSessionStreamReply> replies = new ArrayList<>(results.size());
+                    for (int i = 0; i < results.size(); i++) {
+                        PendingValidation pending = batch.get(i);
+                        ServiceResult result = results.get(i);
+                        replies.add(ValidateSessionStreamReply.newBuilder()
+                                .setRequestId(pending.request().getRequestId())
+                                .setIsValid(result.isSuccess())
+                                .setAccountId(result.accountId())
+                                .build());
+                        grpcMetrics.recordStreamMessage(STREAM_METHOD, now - pending.receivedNanos());
+                    }
+                    return replies;
+                });
+    }
+
     private ValidateSessionReply toValidateSessionReply(ServiceResult result) {
         return ValidateSessionReply.newBuilder()
                 .setIsValid(result.isSuccess())
                 .setAccountId(result.accountId())
                 .build();
     }
+
+    private record PendingValidation(ValidateSessionStreamRequest request, long receivedNanos) {
+    }
 }
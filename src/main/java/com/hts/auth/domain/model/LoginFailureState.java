@@ -0,0 +1,7 @@
+package com.hts.auth.domain.model;
+
+public record LoginFailureState(int failedAttempts, long lockedUntil) {
+    public boolean isLocked() {
+        return lockedUntil > 0;
+    }
+}
@@ -0,0 +1,7 @@
+package com.hts.auth.domain.model;
+
+/**
+ * Session value stored in Redis (see SessionRecordCodec for the byte layout).
+ */
+public record SessionRecord(long accountId, long issuedAtMillis, int ipHash, int flags) {
+}
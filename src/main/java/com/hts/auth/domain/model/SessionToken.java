@@ -0,0 +1,7 @@
+package com.hts.auth.domain.model;
+
+public record SessionToken(long accountId, long issuedAtMillis, long expiresAtMillis) {
+    public boolean isExpired(long nowMillis) {
+        return expiresAtMillis <= nowMillis;
+    }
+}
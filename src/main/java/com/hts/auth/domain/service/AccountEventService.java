@@ -1,12 +1,23 @@
 package com.hts.auth.domain.service;
 
+import com.hts.auth.infrastructre.executor.BlockingExecutor;
 import com.hts.auth.infrastructre.metrics.DbMetrics;
 import com.hts.auth.infrastructre.repository.AuthWriteRepository;
+import com.hts.auth.infrastructre.repository.ReactiveAuthRepository;
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+
 @ApplicationScoped
 public class AccountEventService {
 
@@ -14,37 +25,134 @@ public class AccountEventService {
 
     @Inject AuthWriteRepository writeRepo;
     @Inject DbMetrics dbMetrics;
+    @Inject SessionTokenService tokenService;
+    @Inject ReactiveAuthRepository reactiveRepo;
+    @Inject BlockingExecutor blocking;
+    @Inject PasswordService passwords;
+
+    private static final int RETRIES = 3;
+    private static final Duration RETRY_BACKOFF = Duration.ofMillis(100);
+
+    // batch 이벤트 해싱 동시성. 해싱 큐를 로그인과 공유하므로 작게 유지
+    @ConfigProperty(name = "kafka.batch.hash-concurrency", defaultValue = "4")
+    int hashConcurrency;
 
-    public Uni<Void> createAccount(long accountId, String password) {
+    /**
+     * AccountCreatedEvent batch: 해싱 후 multi-row INSERT 한 번. batch INSERT 는 backoff 로 재시도한 뒤에도 실패하면
+     * 건별 insert 로 fallback 한다. 해싱 / 건별 insert 실패가 남으면 나머지를 처리한 뒤 실패로 끝나서
+     * consumer 가 batch 를 ack 하지 않는다 (INSERT 는 ON CONFLICT DO NOTHING 이라 재처리해도 안전)
+     *
+     * @param plaintextPasswords accountId → 이벤트의 평문 비밀번호
+     */
+    public Uni<Void> createAccounts(Map<Long, String> plaintextPasswords) {
         long start = System.nanoTime();
+        AtomicInteger hashFailures = new AtomicInteger();
 
-        return Uni.createFrom().item(() -> {
-            boolean created = writeRepo.createAccount(accountId, password);
-            if (!created) {
-                dbMetrics.incrementFailure("create_account");
-                throw new RuntimeException("DB insert failed for account_id=" + accountId);
-            }
-            dbMetrics.recordWrite(System.nanoTime() - start);
-            LOG.infof("Created account for account_id=%d", accountId);
-            return null;
-        });
+        return Multi.createFrom().iterable(plaintextPasswords.entrySet())
+                .onItem().transformToUni(e -> passwords.hash(e.getValue())
+                        .onFailure().retry().withBackOff(RETRY_BACKOFF).atMost(RETRIES)
+                        .map(hash -> Map.entry(e.getKey(), hash))
+                        .onFailure().recoverWithItem(ex -> {
+                            hashFailures.incrementAndGet();
+                            dbMetrics.incrementFailure("create_account");
+                            LOG.errorf(ex, "Failed to hash password for account_id=%d", e.getKey());
+                            return null;
+                        }))
+                .merge(hashConcurrency)
+                .collect().asMap(Map.Entry::getKey, Map.Entry::getValue)
+                .flatMap(hashes -> hashes.isEmpty() ? Uni.createFrom().item(0) : insertAll(hashes))
+                .flatMap(insertFailures -> failIfAny("create_account",
+                        hashFailures.get() + insertFailures, plaintextPasswords.size()))
+                .invoke(() -> {
+                    dbMetrics.recordWrite(System.nanoTime() - start);
+                    LOG.infof("Processed AccountCreatedEvent batch: size=%d", plaintextPasswords.size());
+                });
     }
 
-    public Uni<Void> deleteAccount(long accountId) {
+    /**
+     * @return 건별 fallback 에서 실패한 레코드 수
+     */
+    private Uni<Integer> insertAll(Map<Long, String> hashes) {
+        return (reactiveRepo.isEnabled()
+                ? reactiveRepo.createAccounts(hashes)
+                : blocking.supply(() -> writeRepo.createAccounts(hashes)))
+                .onFailure().retry().withBackOff(RETRY_BACKOFF).atMost(RETRIES)
+                .replaceWith(0)
+                .onFailure().recoverWithUni(e -> {
+                    LOG.warnf(e, "Batch insert failed after retries, falling back to per-record inserts: size=%d",
+                            hashes.size());
+                    return Multi.createFrom().iterable(hashes.entrySet())
+                            .onItem().transformToUniAndConcatenate(entry -> reactiveRepo.isEnabled()
+                                    ? reactiveRepo.createAccount(entry.getKey(), entry.getValue())
+                                    : blocking.supply(() -> writeRepo.createAccount(entry.getKey(), entry.getValue())))
+                            .filter(created -> !created)
+                            .onItem().invoke(() -> dbMetrics.incrementFailure("create_account"))
+                            .collect().with(Collectors.summingInt(failed -> 1));
+                });
+    }
+
+    /**
+     * AccountDeletedEvent batch: DELETE ... ANY 한 번 + 세션 삭제 pipeline 한 번 + revoke.
+     * batch 단계는 backoff 로 재시도한 뒤 건별로 fallback 하고, 건별 실패가 남으면 모든 단계를 마친 뒤 실패로 끝나서
+     * consumer 가 batch 를 ack 하지 않는다 (세 단계 모두 재처리해도 안전)
+     */
+    public Uni<Void> deleteAccounts(List<Long> accountIds) {
         long start = System.nanoTime();
 
-        return Uni.createFrom().item(() -> {
-            writeRepo.deleteAccount(accountId);
-            return accountId;
-        })
-        .flatMap(aid -> writeRepo.deleteAllSessionsForAccount(aid))
-        .invoke(() -> {
-            dbMetrics.record("delete_account", "SUCCESS", System.nanoTime() - start);
-            LOG.infof("Deleted account and all sessions for account_id=%d", accountId);
-        })
-        .onFailure().invoke(e -> {
-            dbMetrics.record("delete_account", "FAILURE", System.nanoTime() - start);
-            LOG.errorf(e, "Exception while deleting account for account_id=%d", accountId);
-        });
+        Uni<Integer> delete = (reactiveRepo.isEnabled()
+                ? reactiveRepo.deleteAccounts(accountIds)
+                : blocking.supply(() -> writeRepo.deleteAccounts(accountIds)))
+                .onFailure().retry().withBackOff(RETRY_BACKOFF).atMost(RETRIES)
+                .replaceWith(0)
+                .onFailure().recoverWithUni(e -> {
+                    LOG.warnf(e, "Batch delete failed after retries, falling back to per-record deletes: size=%d",
+                            accountIds.size());
+                    return forEachIsolated(accountIds, aid -> reactiveRepo.isEnabled()
+                            ? reactiveRepo.deleteAccount(aid)
+                            : blocking.supply(() -> {
+                                writeRepo.deleteAccount(aid);
+                                return null;
+                            }));
+                });
+
+        Uni<Integer> sessions = writeRepo.deleteAllSessionsForAccounts(accountIds)
+                .onFailure().retry().withBackOff(RETRY_BACKOFF).atMost(RETRIES)
+                .replaceWith(0)
+                .onFailure().recoverWithUni(e -> forEachIsolated(accountIds, writeRepo::deleteAllSessionsForAccount));
+
+        return delete
+                .flatMap(deleteFailures -> sessions.map(sessionFailures -> deleteFailures + sessionFailures))
+                .flatMap(failures -> forEachIsolated(accountIds, tokenService::revokeAll).map(f -> failures + f))
+                .flatMap(failures -> {
+                    dbMetrics.record("delete_accounts_event_batch", failures == 0 ? "SUCCESS" : "FAILURE",
+                            System.nanoTime() - start);
+                    return failIfAny("delete_account", failures, accountIds.size());
+                })
+                .invoke(() -> LOG.infof("Deleted %d accounts and their sessions", accountIds.size()));
+    }
+
+    /**
+     * 계정별로 순서대로 실행하고 실패는 다음 계정을 막지 않음
+     *
+     * @return 실패한 계정 수
+     */
+    private Uni<Integer> forEachIsolated(List<Long> accountIds, LongFunction<Uni<Void>> action) {
+        return Multi.createFrom().iterable(accountIds)
+                .onItem().transformToUniAndConcatenate(aid -> action.apply(aid)
+                        .replaceWith(0)
+                        .onFailure().recoverWithItem(e -> {
+                            dbMetrics.incrementFailure("delete_account");
+                            LOG.errorf(e, "Failed to process account deletion for account_id=%d", aid);
+                            return 1;
+                        }))
+                .collect().with(Collectors.summingInt(Integer::intValue));
+    }
+
+    private static Uni<Void> failIfAny(String op, int failures, int size) {
+        if (failures == 0) {
+            return Uni.createFrom().voidItem();
+        }
+        return Uni.createFrom().failure(
+                new IllegalStateException(op + " failed for " + failures + " of " + size + " records"));
     }
 }
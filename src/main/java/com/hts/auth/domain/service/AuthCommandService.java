@@ -1,18 +1,35 @@
 package com.hts.auth.domain.service;
 
 import com.hts.auth.domain.model.AuthReadResult;
+import com.hts.auth.domain.model.LoginFailureState;
 import com.hts.auth.domain.model.ServiceResult;
+import com.hts.auth.infrastructre.cache.AccountSnapshotCache;
+import com.hts.auth.infrastructre.executor.BlockingExecutor;
+import com.hts.auth.infrastructre.executor.KeyedMailbox;
 import com.hts.auth.infrastructre.metrics.CommandMetrics;
 import com.hts.auth.infrastructre.repository.AuthReadRepository;
 import com.hts.auth.infrastructre.repository.AuthWriteRepository;
+import com.hts.auth.infrastructre.repository.FailedAttemptWriteBehind;
+import com.hts.auth.infrastructre.repository.LoginAttemptRepository;
+import com.hts.auth.infrastructre.repository.ReactiveAuthRepository;
 import com.hts.auth.infrastructre.repository.RedisAuthRepository;
 import com.hts.generated.grpc.client.*;
+import io.smallrye.mutiny.TimeoutException;
 import io.smallrye.mutiny.Uni;
-import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.RejectedExecutionException;
+
 @ApplicationScoped
 public class AuthCommandService {
 
@@ -22,79 +39,191 @@ public class AuthCommandService {
     @Inject AuthWriteRepository writeRepo;
     @Inject RedisAuthRepository redisRepo;
     @Inject CommandMetrics commandMetrics;
+    @Inject SessionTokenService tokenService;
+    @Inject LoginAttemptRepository loginAttempts;
+    @Inject FailedAttemptWriteBehind writeBehind;
+    @Inject AccountSnapshotCache accountCache;
+    @Inject ReactiveAuthRepository reactiveRepo;
+    @Inject BlockingExecutor blocking;
+    @Inject PasswordService passwords;
 
     private static final int MAX_FAILED_ATTEMPTS = 5;
     private static final long LOCK_DURATION_MILLIS = 30 * 60 * 1000L;
-    private static final int SESSION_TTL_SECONDS = 1800;
+
+    @ConfigProperty(name = "login.mailbox.enabled", defaultValue = "true")
+    boolean mailboxEnabled;
+
+    @ConfigProperty(name = "login.mailbox.max-pending", defaultValue = "16")
+    int mailboxMaxPending;
+
+    @ConfigProperty(name = "login.mailbox.task-timeout.ms", defaultValue = "5000")
+    long mailboxTaskTimeoutMs;
+
+    private KeyedMailbox<ServiceResult> mailbox;
+
+    // 대기 중 시도의 coalesce key 용: 프로세스마다 새로 만드는 key 로 password 를 HMAC (평문을 mailbox 에 두지 않음)
+    private final SecretKeySpec attemptKeySecret = newAttemptKeySecret();
+    private final ThreadLocal<Mac> attemptMac = ThreadLocal.withInitial(this::newAttemptMac);
+
+    @PostConstruct
+    void init() {
+        mailbox = new KeyedMailbox<>(mailboxMaxPending, Duration.ofMillis(mailboxTaskTimeoutMs), new KeyedMailbox.Listener() {
+            @Override
+            public void onStart(long waitNanos) {
+                commandMetrics.record("LOGIN_QUEUE", "STARTED", waitNanos);
+            }
+
+            @Override
+            public void onCoalesced() {
+                commandMetrics.record("LOGIN_QUEUE", "COALESCED", 0);
+            }
+
+            @Override
+            public void onRejected() {
+                commandMetrics.record("LOGIN_QUEUE", "REJECTED", 0);
+            }
+
+            @Override
+            public void onTimeout() {
+                commandMetrics.record("LOGIN_QUEUE", "TIMEOUT", 0);
+            }
+        });
+    }
 
     /**
-     * 로그인: account 조회 → 상태 체크 → 패스워드 검증 → 세션 생성(Redis) → login_history 비동기 기록
+     * 로그인: Redis lock 확인 → account 조회 → 상태 체크 → 패스워드 검증 → 세션 생성(Redis) → login_history 비동기 기록.
+     * 같은 계정의 시도는 mailbox 에서 순서대로 하나씩 처리 (잠금 이후 대기 중이던 시도는 해싱 없이 거절되고
+     * 실패 횟수가 MAX_FAILED_ATTEMPTS 를 넘지 않음). 대기 중인 같은 (password, ip) 시도는 한 번만 실행하고 결과 공유.
+     * mailbox 안의 시도가 task-timeout 을 넘기면 caller 는 TimeoutException 을 받지만, 다음 시도는 그 시도가 실제로 끝난 뒤 시작
      */
     public Uni<ServiceResult> login(long accountId, String password, String ip) {
         long start = System.nanoTime();
 
-        return Uni.createFrom().item(() -> readRepo.findByAccountId(accountId))
-                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool())
-                .flatMap(account -> {
-                    if (!account.found()) {
-                        writeRepo.recordLoginHistoryAsync(accountId, "FAIL", ip, "ACCOUNT_NOT_FOUND");
-                        return Uni.createFrom().item(ServiceResult.failure(AuthResult.ACCOUNT_NOT_FOUND));
-                    }
+        Uni<ServiceResult> attempt = mailboxEnabled
+                ? mailbox.submit(accountId, attemptKey(password, ip), () -> processLogin(accountId, password, ip))
+                : processLogin(accountId, password, ip);
 
-                    if (account.isLocked()) {
+        return attempt
+                .onItem().invoke(result ->
+                        commandMetrics.record("LOGIN", result.code().name(), System.nanoTime() - start))
+                .onFailure(RejectedExecutionException.class).invoke(() ->
+                        commandMetrics.record("LOGIN", "REJECTED", System.nanoTime() - start))
+                .onFailure(TimeoutException.class).invoke(() ->
+                        commandMetrics.record("LOGIN", "TIMEOUT", System.nanoTime() - start));
+    }
+
+    private Uni<ServiceResult> processLogin(long accountId, String password, String ip) {
+        return loginAttempts.lockedUntil(accountId)
+                .flatMap(lockedUntil -> {
+                    // 잠긴 계정은 DB 조회 없이 거절
+                    if (lockedUntil > System.currentTimeMillis()) {
                         writeRepo.recordLoginHistoryAsync(accountId, "LOCKED", ip, "ACCOUNT_LOCKED");
                         return Uni.createFrom().item(ServiceResult.failure(AuthResult.ACCOUNT_LOCKED));
                     }
+                    return loadAccount(accountId)
+                            .flatMap(account -> authenticate(accountId, account, password, ip));
+                });
+    }
 
-                    if (!account.isActive()) {
-                        writeRepo.recordLoginHistoryAsync(accountId, "FAIL", ip, "ACCOUNT_SUSPENDED");
-                        return Uni.createFrom().item(ServiceResult.failure(AuthResult.ACCOUNT_SUSPENDED));
-                    }
+    /**
+     * db.client=reactive 이면 event loop 에서 그대로, 아니면 JDBC 조회를 BlockingExecutor (worker pool / virtual thread) 로 넘긴다
+     */
+    private Uni<AuthReadResult> loadAccount(long accountId) {
+        if (reactiveRepo.isEnabled()) {
+            return accountCache.getAsync(accountId, reactiveRepo::findByAccountId);
+        }
+        return blocking.supply(() -> accountCache.get(accountId, readRepo::findByAccountId));
+    }
+
+    private Uni<ServiceResult> authenticate(long accountId, AuthReadResult account, String password, String ip) {
+        if (!account.found()) {
+            writeRepo.recordLoginHistoryAsync(accountId, "FAIL", ip, "ACCOUNT_NOT_FOUND");
+            return Uni.createFrom().item(ServiceResult.failure(AuthResult.ACCOUNT_NOT_FOUND));
+        }
 
-                    // 암호화 검증
-                    // boolean valid = PasswordHasher.verify(password, account.passwordHash());
-                    boolean valid = password.equals(account.passwordHash());
+        if (account.isLocked()) {
+            writeRepo.recordLoginHistoryAsync(accountId, "LOCKED", ip, "ACCOUNT_LOCKED");
+            return Uni.createFrom().item(ServiceResult.failure(AuthResult.ACCOUNT_LOCKED));
+        }
+
+        if (!account.isActive()) {
+            writeRepo.recordLoginHistoryAsync(accountId, "FAIL", ip, "ACCOUNT_SUSPENDED");
+            return Uni.createFrom().item(ServiceResult.failure(AuthResult.ACCOUNT_SUSPENDED));
+        }
+
+        // PBKDF2 검증은 전용 해싱 executor 에서. 큐가 가득 차면 RejectedExecutionException 으로 즉시 실패
+        return passwords.verify(password, account.passwordHash())
+                .flatMap(valid -> {
                     if (!valid) {
-                        return handleLoginFailure(account,ip);
+                        return handleLoginFailure(account, ip);
                     }
-                    return handleLoginSuccess(accountId, ip);
-                })
-                .onItem().invoke(result ->
-                        commandMetrics.record("LOGIN", result.code().name(), System.nanoTime() - start));
+                    passwords.rehashIfNeeded(accountId, password, account.passwordHash());
+                    return handleLoginSuccess(account, ip);
+                });
     }
 
+    /**
+     * 실패 카운트/잠금은 Redis 에서 원자적으로 처리하고 DB 에는 write-behind. Redis 장애 시 DB 직접 갱신으로 fallback
+     */
     private Uni<ServiceResult> handleLoginFailure(AuthReadResult account, String ip) {
         long accountId = account.accountId();
 
-        return Uni.createFrom().item(() -> {
-                    int newFailed = writeRepo.incrementFailedAttempts(accountId);
-                    if (newFailed >= MAX_FAILED_ATTEMPTS) {
-                        long lockUntil = System.currentTimeMillis() + LOCK_DURATION_MILLIS;
-                        writeRepo.lockAccount(accountId, newFailed, lockUntil);
+        return loginAttempts.recordFailure(accountId, account.failedAttempts(), MAX_FAILED_ATTEMPTS, LOCK_DURATION_MILLIS)
+                .map(state -> {
+                    if (state.isLocked()) {
+                        writeBehind.lock(accountId, state.failedAttempts(), state.lockedUntil());
                         writeRepo.recordLoginHistoryAsync(accountId, "LOCKED", ip, "MAX_ATTEMPTS_EXCEEDED");
                         return ServiceResult.failure(AuthResult.ACCOUNT_LOCKED);
                     }
 
+                    writeBehind.failedAttempts(accountId, state.failedAttempts());
                     writeRepo.recordLoginHistoryAsync(accountId, "FAIL", ip, "INVALID_PASSWORD");
                     return ServiceResult.failure(AuthResult.INVALID_CREDENTIALS);
                 })
-                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+                .onFailure().recoverWithUni(e -> handleLoginFailureInDb(accountId, ip));
     }
 
-    private Uni<ServiceResult> handleLoginSuccess(long accountId, String ip) {
-        return Uni.createFrom().item(() -> {
-                    writeRepo.resetFailedAttempts(accountId);
-                    return accountId;
-                })
-                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool())
-                .flatMap(aid -> redisRepo.saveSessionAtomic(aid, SESSION_TTL_SECONDS)
-                        .map(sessionId -> ServiceResult.success(sessionId, aid)))
-                .invoke(() -> writeRepo.recordLoginHistoryAsync(accountId, "SUCCESS", ip, null));
+    private Uni<ServiceResult> handleLoginFailureInDb(long accountId, String ip) {
+        long lockUntil = System.currentTimeMillis() + LOCK_DURATION_MILLIS;
+        Uni<LoginFailureState> recorded = reactiveRepo.isEnabled()
+                ? reactiveRepo.recordFailedAttempt(accountId, MAX_FAILED_ATTEMPTS, lockUntil)
+                : blocking.supply(() -> writeRepo.recordFailedAttempt(accountId, MAX_FAILED_ATTEMPTS, lockUntil));
+
+        return recorded.map(state -> {
+            if (state.isLocked()) {
+                writeRepo.recordLoginHistoryAsync(accountId, "LOCKED", ip, "MAX_ATTEMPTS_EXCEEDED");
+                return ServiceResult.failure(AuthResult.ACCOUNT_LOCKED);
+            }
+
+            writeRepo.recordLoginHistoryAsync(accountId, "FAIL", ip, "INVALID_PASSWORD");
+            return ServiceResult.failure(AuthResult.INVALID_CREDENTIALS);
+        });
+    }
+
+    private Uni<ServiceResult> handleLoginSuccess(AuthReadResult account, String ip) {
+        long accountId = account.accountId();
+
+        return loginAttempts.reset(accountId)
+                .flatMap(hadCounter -> (tokenService.isEnabled()
+                        ? tokenService.issue(accountId)
+                        : redisRepo.saveSessionAtomic(accountId, ip))
+                        .invoke(() -> {
+                            // 실패 이력이 있으면 DB reset + history 를 write-behind 에서 한 문장으로,
+                            // 없으면 accounts 는 건드리지 않고 history 만 group commit
+                            if (hadCounter || account.failedAttempts() > 0) {
+                                writeBehind.resetOnSuccess(accountId, ip);
+                            } else {
+                                writeRepo.recordLoginHistoryAsync(accountId, "SUCCESS", ip, null);
+                            }
+                        }))
+                .map(sessionId -> ServiceResult.success(sessionId, accountId));
     }
 
     public Uni<ServiceResult> logout(String sessionId, long accountId) {
         long start = System.nanoTime();
-        return redisRepo.deleteSession(sessionId, accountId)
+        return (tokenService.isToken(sessionId)
+                ? tokenService.revokeAll(accountId)
+                : redisRepo.deleteSession(sessionId, accountId))
                 .replaceWith(ServiceResult.of(AuthResult.SUCCESS))
                 .onFailure().recoverWithItem(e -> {
                     LOG.errorf(e, "Logout failed for session_id=%s", sessionId);
@@ -104,4 +233,27 @@ public class AuthCommandService {
                         commandMetrics.record("LOGOUT", result.code().name(), System.nanoTime() - start));
     }
 
+    private AttemptKey attemptKey(String password, String ip) {
+        byte[] digest = attemptMac.get().doFinal(password.getBytes(StandardCharsets.UTF_8));
+        return new AttemptKey(HexFormat.of().formatHex(digest), ip);
+    }
+
+    private Mac newAttemptMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(attemptKeySecret);
+            return mac;
+        } catch (Exception e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private static SecretKeySpec newAttemptKeySecret() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return new SecretKeySpec(key, "HmacSHA256");
+    }
+
+    private record AttemptKey(String passwordDigest, String ip) {
+    }
 }
@@ -1,25 +1,153 @@
 package com.hts.auth.domain.service;
 
 import com.hts.auth.domain.model.ServiceResult;
+import com.hts.auth.infrastructre.cache.SessionNearCache;
+import com.hts.auth.infrastructre.metrics.NearCacheMetrics;
 import com.hts.auth.infrastructre.repository.RedisAuthRepository;
 import com.hts.generated.grpc.client.*;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 @ApplicationScoped
 public class AuthQueryService {
 
     @Inject RedisAuthRepository redisRepo;
+    @Inject SessionNearCache nearCache;
+    @Inject SessionTokenService tokenService;
+    @Inject NearCacheMetrics nearCacheMetrics;
+
+    @ConfigProperty(name = "session.single-flight.enabled", defaultValue = "true")
+    boolean singleFlightEnabled;
+
+    private final ConcurrentHashMap<String, Flight> inFlight = new ConcurrentHashMap<>();
 
     public Uni<ServiceResult> validateSession(String sessionId) {
+        if (tokenService.isToken(sessionId)) {
+            return tokenService.validate(sessionId);
+        }
+
+        Long cached = nearCache.get(sessionId);
+        if (cached != null) {
+            return Uni.createFrom().item(ServiceResult.success(sessionId, cached));
+        }
+
+        return singleFlightEnabled ? lookupCoalesced(sessionId) : lookup(sessionId, nearCache.epoch(sessionId));
+    }
+
+    /**
+     * 같은 sessionId 의 동시 조회는 하나의 Redis 호출을 공유.
+     * flight 는 시작 시점의 invalidation epoch 를 기억하고, 그 사이 epoch 가 바뀌었으면 (logout 등) 합류하지 않고
+     * 새 flight 를 시작한다. 결과는 memoize 되어 한 subscriber 가 cancel 해도 다른 subscriber 에게 전달되며,
+     * 성공/실패와 관계없이 완료 시 map 에서 제거되므로 실패 결과가 재사용되지 않는다.
+     */
+    private Uni<ServiceResult> lookupCoalesced(String sessionId) {
+        long epoch = nearCache.epoch(sessionId);
+        Flight[] created = new Flight[1];
+        Flight flight = inFlight.compute(sessionId, (id, existing) -> {
+            if (existing != null && existing.epoch == epoch) {
+                return existing;
+            }
+            // Uni 는 lazy 라 여기서는 만들기만 하고, 첫 subscriber 가 Redis 호출을 시작
+            Flight f = new Flight(epoch);
+            f.result = lookup(sessionId, epoch)
+                    .onTermination().invoke(() -> inFlight.remove(sessionId, f))
+                    .memoize().indefinitely();
+            created[0] = f;
+            return f;
+        });
+
+        nearCacheMetrics.recordLookup(flight != created[0]);
+        return flight.result;
+    }
+
+    private Uni<ServiceResult> lookup(String sessionId, long epoch) {
         return redisRepo.getSession(sessionId)
                 .map(accountId -> {
                     if (accountId == 0L) {
                         return ServiceResult.failure(AuthResult.SESSION_NOT_FOUND);
                     }
+                    nearCache.putIfUnchanged(sessionId, accountId, epoch);
                     return ServiceResult.success(sessionId, accountId);
                 })
                 .onFailure().recoverWithItem(e -> ServiceResult.failure(AuthResult.INTERNAL_ERROR));
     }
+
+    /**
+     * 배치 검증: near-cache 에서 먼저 찾고, 나머지는 한 번의 파이프라인으로 Redis 조회. 결과는 입력 순서
+     */
+    public Uni<List<ServiceResult>> validateSessions(List<String> sessionIds) {
+        int n = sessionIds.size();
+        ServiceResult[] results = new ServiceResult[n];
+        List<Integer> missIndexes = new ArrayList<>();
+        List<String> missIds = new ArrayList<>();
+        long[] epochs = new long[n];
+        List<Uni<ServiceResult>> tokenChecks = new ArrayList<>();
+
+        for (int i = 0; i < n; i++) {
+            String sessionId = sessionIds.get(i);
+            if (tokenService.isToken(sessionId)) {
+                int index = i;
+                tokenChecks.add(tokenService.validate(sessionId).invoke(result -> results[index] = result));
+                continue;
+            }
+            Long cached = nearCache.get(sessionId);
+            if (cached != null) {
+                results[i] = ServiceResult.success(sessionId, cached);
+            } else {
+                epochs[i] = nearCache.epoch(sessionId);
+                missIndexes.add(i);
+                missIds.add(sessionId);
+            }
+        }
+
+        Uni<List<ServiceResult>> lookups = missIds.isEmpty()
+                ? Uni.createFrom().item(() -> Arrays.asList(results))
+                : lookupMisses(missIds, missIndexes, epochs, results);
+        if (tokenChecks.isEmpty()) {
+            return lookups;
+        }
+        // token 검증은 sync 이후 즉시 끝나고, 실패를 결과로 바꿔 돌려주므로 join 이 실패하지 않음
+        return Uni.join().all(tokenChecks).andFailFast().flatMap(ignored -> lookups);
+    }
+
+    private Uni<List<ServiceResult>> lookupMisses(List<String> missIds, List<Integer> missIndexes, long[] epochs,
+                                                  ServiceResult[] results) {
+        return redisRepo.getSessions(missIds)
+                .map(accountIds -> {
+                    for (int j = 0; j < missIds.size(); j++) {
+                        int i = missIndexes.get(j);
+                        String sessionId = missIds.get(j);
+                        long accountId = accountIds.get(j);
+                        if (accountId == 0L) {
+                            results[i] = ServiceResult.failure(AuthResult.SESSION_NOT_FOUND);
+                        } else {
+                            nearCache.putIfUnchanged(sessionId, accountId, epochs[i]);
+                            results[i] = ServiceResult.success(sessionId, accountId);
+                        }
+                    }
+                    return Arrays.asList(results);
+                })
+                .onFailure().recoverWithItem(e -> {
+                    for (int i : missIndexes) {
+                        results[i] = ServiceResult.failure(AuthResult.INTERNAL_ERROR);
+                    }
+                    return Arrays.asList(results);
+                });
+    }
+
+    private static final class Flight {
+        final long epoch;
+        Uni<ServiceResult> result;
+
+        Flight(long epoch) {
+            this.epoch = epoch;
+        }
+    }
 }
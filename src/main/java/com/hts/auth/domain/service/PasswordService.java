@@ -0,0 +1,117 @@
+package com.hts.auth.domain.service;
+
+import com.hts.auth.domain.util.PasswordHasher;
+import com.hts.auth.infrastructre.executor.BlockingExecutor;
+import com.hts.auth.infrastructre.metrics.PasswordHashMetrics;
+import com.hts.auth.infrastructre.repository.AuthWriteRepository;
+import io.quarkus.runtime.ShutdownEvent;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * PBKDF2 hashing on a dedicated core-sized executor.
+ * The queue is bounded and submissions beyond it fail immediately with RejectedExecutionException,
+ * so a login burst can't pile work onto the event loop or the DB worker pool.
+ */
+@ApplicationScoped
+public class PasswordService {
+
+    private static final Logger LOG = Logger.getLogger(PasswordService.class);
+
+    @Inject PasswordHashMetrics metrics;
+    @Inject AuthWriteRepository writeRepo;
+    @Inject BlockingExecutor blocking;
+
+    @ConfigProperty(name = "password.hash.iterations", defaultValue = "600000")
+    int iterations;
+
+    // 0 이면 availableProcessors
+    @ConfigProperty(name = "password.hash.threads", defaultValue = "0")
+    int threads;
+
+    @ConfigProperty(name = "password.hash.queue-capacity", defaultValue = "256")
+    int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ArrayBlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger seq = new AtomicInteger();
+        executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS, queue, r -> {
+            Thread t = new Thread(r, "password-hash-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        executor.prestartAllCoreThreads();
+        metrics.bindQueue(queue);
+    }
+
+    void onShutdown(@Observes ShutdownEvent ev) {
+        executor.shutdown();
+    }
+
+    public Uni<String> hash(String password) {
+        return submit("hash", () -> PasswordHasher.hashPbkdf2(password, iterations));
+    }
+
+    /**
+     * @return 일치 여부. 큐가 가득 차면 RejectedExecutionException 으로 즉시 실패
+     */
+    public Uni<Boolean> verify(String password, String storedHash) {
+        return submit("verify", () -> PasswordHasher.verify(password, storedHash));
+    }
+
+    /**
+     * 로그인 성공 후 legacy / 낮은 cost 해시를 비동기로 교체. 로그인 응답은 기다리지 않으며,
+     * 해싱 큐가 가득 차면 이번에는 건너뛴다 (다음 로그인에서 재시도)
+     */
+    public void rehashIfNeeded(long accountId, String password, String storedHash) {
+        if (!PasswordHasher.needsRehash(storedHash, iterations)) {
+            return;
+        }
+        submit("rehash", () -> PasswordHasher.hashPbkdf2(password, iterations))
+                .flatMap(newHash -> blocking.supply(() -> writeRepo.updatePasswordHash(accountId, storedHash, newHash)))
+                .subscribe().with(
+                        updated -> metrics.incrementRehash(updated ? "UPDATED" : "CONFLICT"),
+                        e -> {
+                            metrics.incrementRehash(e instanceof RejectedExecutionException ? "SKIPPED" : "FAILURE");
+                            if (!(e instanceof RejectedExecutionException)) {
+                                LOG.warnf(e, "Password rehash failed: account_id=%d", accountId);
+                            }
+                        });
+    }
+
+    private <T> Uni<T> submit(String op, Supplier<T> task) {
+        return Uni.createFrom().emitter(em -> {
+            try {
+                executor.execute(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        T result = task.get();
+                        metrics.record(op, System.nanoTime() - start);
+                        em.complete(result);
+                    } catch (Exception e) {
+                        em.fail(e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                metrics.incrementRejected(op);
+                em.fail(e);
+            }
+        });
+    }
+}
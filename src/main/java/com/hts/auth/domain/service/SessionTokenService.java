@@ -0,0 +1,191 @@
+package com.hts.auth.domain.service;
+
+import com.hts.auth.domain.model.ServiceResult;
+import com.hts.auth.domain.model.SessionToken;
+import com.hts.auth.infrastructre.cache.RevocationWatermarks;
+import com.hts.auth.infrastructre.metrics.SessionTokenMetrics;
+import com.hts.generated.grpc.client.*;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Stateless session tokens: "v1.<kid>.<payload>.<signature>" (base64url).
+ * payload = accountId | issuedAt | expiresAt (3 x int64), signature = HMAC-SHA256 over "v1.<kid>.<payload>".
+ * Keys rotate by adding a new kid to session.token.keys and switching session.token.active-kid;
+ * tokens signed by any configured kid keep verifying until they expire.
+ */
+@ApplicationScoped
+public class SessionTokenService {
+
+    private static final String VERSION = "v1";
+    private static final String PREFIX = VERSION + ".";
+    private static final String HMAC = "HmacSHA256";
+    private static final int PAYLOAD_BYTES = 24;
+
+    @Inject RevocationWatermarks revocations;
+    @Inject SessionTokenMetrics metrics;
+
+    @ConfigProperty(name = "session.token.enabled", defaultValue = "false")
+    boolean enabled;
+
+    // kid:base64Secret,kid:base64Secret
+    @ConfigProperty(name = "session.token.keys")
+    Optional<String> keysConfig;
+
+    @ConfigProperty(name = "session.token.active-kid")
+    Optional<String> activeKid;
+
+    @ConfigProperty(name = "session.ttl.seconds", defaultValue = "1800")
+    int sessionTtlSeconds;
+
+    private final Map<String, SecretKeySpec> keys = new HashMap<>();
+    private final ThreadLocal<Map<String, Mac>> macs = ThreadLocal.withInitial(HashMap::new);
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        for (String entry : keysConfig.orElse("").split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int sep = trimmed.indexOf(':');
+            if (sep <= 0 || trimmed.indexOf('.') >= 0) {
+                throw new IllegalStateException("Invalid session.token.keys entry (expected kid:base64Secret)");
+            }
+            keys.put(trimmed.substring(0, sep),
+                    new SecretKeySpec(Base64.getDecoder().decode(trimmed.substring(sep + 1)), HMAC));
+        }
+        if (!keys.containsKey(activeKid.orElse(""))) {
+            throw new IllegalStateException("session.token.active-kid must reference a key in session.token.keys");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isToken(String sessionId) {
+        return enabled && sessionId.startsWith(PREFIX);
+    }
+
+    /**
+     * 새 토큰 발급. 단일 세션 정책 유지를 위해 이전에 발급된 토큰은 revoked-before watermark 로 무효화.
+     * 따라서 TTL 안에 로그인한 모든 계정이 revocation set 에 들어감 (크기는 RevocationWatermarks 참고)
+     */
+    public Uni<String> issue(long accountId) {
+        long now = System.currentTimeMillis();
+        String token = sign(new SessionToken(accountId, now, now + sessionTtlSeconds * 1000L));
+        return revocations.revoke(accountId, now).replaceWith(token);
+    }
+
+    public Uni<Void> revokeAll(long accountId) {
+        if (!enabled) {
+            return Uni.createFrom().voidItem();
+        }
+        return revocations.revoke(accountId, System.currentTimeMillis() + 1);
+    }
+
+    /**
+     * 검증: 서명 → 만료 → revoked-before watermark. sync 이후에는 I/O 없이 로컬 watermark 로 끝남.
+     * 첫 revocation sync 가 끝나기 전에는 로컬 watermark 를 믿지 않고 해당 계정 것만 Redis 에서 확인
+     * (near-cache 가 구독 전에는 Redis 로 가는 것과 같은 방식). 그 조회가 실패하면 통과시키지 않음
+     */
+    public Uni<ServiceResult> validate(String token) {
+        SessionToken parsed = verify(token);
+        if (parsed == null) {
+            metrics.recordVerify("INVALID");
+            return Uni.createFrom().item(ServiceResult.failure(AuthResult.SESSION_NOT_FOUND));
+        }
+        if (parsed.isExpired(System.currentTimeMillis())) {
+            metrics.recordVerify("EXPIRED");
+            return Uni.createFrom().item(ServiceResult.failure(AuthResult.SESSION_EXPIRED));
+        }
+        if (revocations.isSynced()) {
+            return Uni.createFrom().item(checkRevocation(token, parsed, revocations.revokedBefore(parsed.accountId())));
+        }
+        return revocations.fetchRevokedBefore(parsed.accountId())
+                .map(revokedBefore -> checkRevocation(token, parsed, revokedBefore))
+                .onFailure().recoverWithItem(e -> {
+                    metrics.recordVerify("UNSYNCED");
+                    return ServiceResult.failure(AuthResult.INTERNAL_ERROR);
+                });
+    }
+
+    private ServiceResult checkRevocation(String token, SessionToken parsed, long revokedBefore) {
+        if (parsed.issuedAtMillis() < revokedBefore) {
+            metrics.recordVerify("REVOKED");
+            return ServiceResult.failure(AuthResult.SESSION_NOT_FOUND);
+        }
+        metrics.recordVerify("VALID");
+        return ServiceResult.success(token, parsed.accountId());
+    }
+
+    private String sign(SessionToken token) {
+        String kid = activeKid.orElseThrow();
+        ByteBuffer payload = ByteBuffer.allocate(PAYLOAD_BYTES)
+                .putLong(token.accountId())
+                .putLong(token.issuedAtMillis())
+                .putLong(token.expiresAtMillis());
+        String signed = PREFIX + kid + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.array());
+        return signed + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(mac(kid).doFinal(bytes(signed)));
+    }
+
+    private SessionToken verify(String token) {
+        int kidEnd = token.indexOf('.', PREFIX.length());
+        int payloadEnd = kidEnd < 0 ? -1 : token.indexOf('.', kidEnd + 1);
+        if (payloadEnd < 0) {
+            return null;
+        }
+        String kid = token.substring(PREFIX.length(), kidEnd);
+        if (!keys.containsKey(kid)) {
+            return null;
+        }
+        try {
+            byte[] expected = mac(kid).doFinal(bytes(token.substring(0, payloadEnd)));
+            byte[] actual = Base64.getUrlDecoder().decode(token.substring(payloadEnd + 1));
+            if (!MessageDigest.isEqual(expected, actual)) {
+                return null;
+            }
+            byte[] payload = Base64.getUrlDecoder().decode(token.substring(kidEnd + 1, payloadEnd));
+            if (payload.length != PAYLOAD_BYTES) {
+                return null;
+            }
+            ByteBuffer buf = ByteBuffer.wrap(payload);
+            return new SessionToken(buf.getLong(), buf.getLong(), buf.getLong());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private Mac mac(String kid) {
+        return macs.get().computeIfAbsent(kid, k -> {
+            try {
+                Mac mac = Mac.getInstance(HMAC);
+                mac.init(keys.get(k));
+                return mac;
+            } catch (Exception e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -1,15 +1,27 @@
 package com.hts.auth.domain.util;
 
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.Base64;
 
+/**
+ * Stored format: pbkdf2_sha256$&lt;iterations&gt;$&lt;salt b64&gt;$&lt;hash b64&gt;.
+ * Anything else in password_hash is a legacy plaintext value (V2 seed data, accounts created before hashing);
+ * it still verifies but needsRehash() reports it so login can upgrade it.
+ */
 public class PasswordHasher {
     private static final SecureRandom RANDOM = new SecureRandom();
     private static final int SALT_LENGTH = 32;
 
+    private static final String PBKDF2_PREFIX = "pbkdf2_sha256";
+    private static final String PBKDF2_ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int PBKDF2_KEY_BITS = 256;
+
     public static String hash(String password, String salt) {
         try {
             MessageDigest md = MessageDigest.getInstance("SHA-256");
@@ -34,4 +46,59 @@ public class PasswordHasher {
             expectedHash.getBytes(StandardCharsets.UTF_8)
         );
     }
+
+    public static String hashPbkdf2(String password, int iterations) {
+        byte[] salt = new byte[SALT_LENGTH];
+        RANDOM.nextBytes(salt);
+        byte[] derived = pbkdf2(password, salt, iterations);
+        Base64.Encoder b64 = Base64.getEncoder().withoutPadding();
+        return PBKDF2_PREFIX + "$" + iterations + "$" + b64.encodeToString(salt) + "$" + b64.encodeToString(derived);
+    }
+
+    /**
+     * 저장된 형식에 따라 PBKDF2 또는 legacy plaintext 비교 (둘 다 constant-time)
+     */
+    public static boolean verify(String password, String stored) {
+        if (!isPbkdf2(stored)) {
+            return MessageDigest.isEqual(
+                password.getBytes(StandardCharsets.UTF_8),
+                stored.getBytes(StandardCharsets.UTF_8)
+            );
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        Base64.Decoder b64 = Base64.getDecoder();
+        byte[] expected = b64.decode(parts[3]);
+        byte[] actual = pbkdf2(password, b64.decode(parts[2]), Integer.parseInt(parts[1]));
+        return MessageDigest.isEqual(actual, expected);
+    }
+
+    /**
+     * legacy 형식이거나 iteration 수가 현재 설정보다 낮으면 true
+     */
+    public static boolean needsRehash(String stored, int iterations) {
+        if (!isPbkdf2(stored)) {
+            return true;
+        }
+        int from = PBKDF2_PREFIX.length() + 1;
+        int to = stored.indexOf('$', from);
+        return to < 0 || Integer.parseInt(stored, from, to, 10) < iterations;
+    }
+
+    private static boolean isPbkdf2(String stored) {
+        return stored.startsWith(PBKDF2_PREFIX + "$");
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, PBKDF2_KEY_BITS);
+        try {
+            return SecretKeyFactory.getInstance(PBKDF2_ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException(PBKDF2_ALGORITHM + " not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
 }
@@ -0,0 +1,29 @@
+package com.hts.auth.domain.util;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * 128-bit random session ids, base64url without padding (22 chars, never contains '.', so it can't be
+ * mistaken for a "v1." session token). Each thread owns its own DRBG instance, so generation takes no
+ * shared lock; callers are event-loop / worker platform threads.
+ */
+public class SessionIdGenerator {
+    private static final int ID_BYTES = 16;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(() -> {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    });
+
+    public static String next() {
+        byte[] bytes = new byte[ID_BYTES];
+        RANDOM.get().nextBytes(bytes);
+        return ENCODER.encodeToString(bytes);
+    }
+}
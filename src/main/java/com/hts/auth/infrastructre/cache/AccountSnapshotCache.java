@@ -0,0 +1,157 @@
+package com.hts.auth.infrastructre.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hts.auth.domain.model.AuthReadResult;
+import com.hts.auth.infrastructre.metrics.NearCacheMetrics;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.redis.datasource.pubsub.ReactivePubSubCommands;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongFunction;
+
+/**
+ * accountId → AuthReadResult snapshot cache (Caffeine, W-TinyLFU eviction) in front of the accounts read.
+ * Local writes invalidate the entry and publish the accountId so other instances evict too
+ * (Kafka account events reach only one consumer in the group). Not-found results are never cached.
+ */
+@ApplicationScoped
+public class AccountSnapshotCache {
+
+    private static final Logger LOG = Logger.getLogger(AccountSnapshotCache.class);
+    private static final String CACHE_NAME = "account_snapshot_cache";
+    private static final int STRIPES = 64;
+
+    @Inject ReactiveRedisDataSource redis;
+    @Inject NearCacheMetrics metrics;
+
+    @ConfigProperty(name = "account.cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "account.cache.max-size", defaultValue = "100000")
+    long maxSize;
+
+    @ConfigProperty(name = "account.cache.ttl.seconds", defaultValue = "300")
+    long ttlSeconds;
+
+    @ConfigProperty(name = "account.invalidation.channel", defaultValue = "account-invalidation")
+    String channel;
+
+    private Cache<Long, AuthReadResult> cache;
+
+    // 비동기 로드는 Caffeine compute 밖에서 끝나므로, 로드 중 invalidation 을 stripe 세대로 감지
+    private final AtomicLongArray epochs = new AtomicLongArray(STRIPES);
+    private ReactivePubSubCommands<String> pubsub;
+    private volatile boolean subscribed;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        metrics.bind(cache, CACHE_NAME);
+        pubsub = redis.pubsub(String.class);
+    }
+
+    void onStart(@Observes StartupEvent ev) {
+        if (!enabled) {
+            return;
+        }
+        pubsub.subscribe(channel, this::onInvalidation)
+                .subscribe().with(
+                        subscriber -> {
+                            subscribed = true;
+                            LOG.infof("Account snapshot cache subscribed to channel=%s", channel);
+                        },
+                        e -> LOG.errorf(e, "Account snapshot cache subscription failed, cache disabled: channel=%s", channel));
+    }
+
+    /**
+     * Read-through 조회. loader 는 blocking (worker thread 에서 호출할 것)
+     */
+    public AuthReadResult get(long accountId, LongFunction<AuthReadResult> loader) {
+        if (!subscribed) {
+            return loader.apply(accountId);
+        }
+        AuthReadResult cached = cache.getIfPresent(accountId);
+        if (cached != null) {
+            return cached;
+        }
+        AuthReadResult loaded = cache.get(accountId, id -> {
+            AuthReadResult result = loader.apply(id);
+            return result.found() ? result : null;
+        });
+        return loaded != null ? loaded : AuthReadResult.notFound();
+    }
+
+    /**
+     * Non-blocking read-through (reactive repository 용). 로드 도중 invalidation 이 있었다면 결과를 캐시에 넣지 않는다
+     */
+    public Uni<AuthReadResult> getAsync(long accountId, LongFunction<Uni<AuthReadResult>> loader) {
+        if (!subscribed) {
+            return loader.apply(accountId);
+        }
+        AuthReadResult cached = cache.getIfPresent(accountId);
+        if (cached != null) {
+            return Uni.createFrom().item(cached);
+        }
+        long epoch = epochs.get(stripe(accountId));
+        return loader.apply(accountId)
+                .invoke(result -> {
+                    if (!result.found()) {
+                        return;
+                    }
+                    cache.put(accountId, result);
+                    if (epochs.get(stripe(accountId)) != epoch) {
+                        cache.invalidate(accountId);
+                        metrics.incrementStaleFillSkipped(CACHE_NAME);
+                    }
+                });
+    }
+
+    public void put(AuthReadResult snapshot) {
+        if (subscribed && snapshot.found()) {
+            cache.put(snapshot.accountId(), snapshot);
+        }
+    }
+
+    public void invalidate(long accountId) {
+        evict(accountId);
+        if (subscribed) {
+            pubsub.publish(channel, System.currentTimeMillis() + "|" + accountId)
+                    .subscribe().with(
+                            ignored -> { },
+                            e -> LOG.warnf(e, "Failed to publish account invalidation: account_id=%d", accountId));
+        }
+    }
+
+    void onInvalidation(String payload) {
+        int sep = payload.indexOf('|');
+        if (sep < 0) {
+            LOG.warnf("Malformed account invalidation message: %s", payload);
+            return;
+        }
+        evict(Long.parseLong(payload.substring(sep + 1)));
+        metrics.recordInvalidation(CACHE_NAME, System.currentTimeMillis() - Long.parseLong(payload, 0, sep, 10));
+    }
+
+    private void evict(long accountId) {
+        epochs.incrementAndGet(stripe(accountId));
+        cache.invalidate(accountId);
+    }
+
+    private static int stripe(long accountId) {
+        return (int) ((accountId & Long.MAX_VALUE) % STRIPES);
+    }
+}
@@ -0,0 +1,147 @@
+package com.hts.auth.infrastructre.cache;
+
+import com.hts.auth.infrastructre.metrics.SessionTokenMetrics;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.redis.datasource.sortedset.ReactiveSortedSetCommands;
+import io.quarkus.redis.datasource.sortedset.ScoreRange;
+import io.quarkus.redis.datasource.sortedset.ScoredValue;
+import io.quarkus.redis.datasource.sortedset.ZAddArgs;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.Vertx;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-account "revoked-before" watermarks for stateless session tokens.
+ * Source of truth is a Redis sorted set (member=accountId, score=watermark millis); every instance keeps
+ * a local copy and pulls changes incrementally on a fixed interval. Entries older than the session TTL
+ * are pruned on both sides since every token they could revoke has already expired.
+ * <p>
+ * Until the first sync has completed the local copy may be missing watermarks, so callers check
+ * isSynced() and otherwise read the single account's watermark from Redis (fetchRevokedBefore).
+ * <p>
+ * Size: SessionTokenService.issue() writes a watermark on every login to keep one live token per account,
+ * so the set holds one entry per distinct account that logged in (or logged out) within session.ttl.seconds,
+ * not just the explicitly revoked ones. Budget for that peak: in Redis roughly 70-100 bytes per member,
+ * locally roughly 90 bytes per ConcurrentHashMap entry (1M accounts per TTL ≈ 90 MB heap per instance).
+ * The first sync after startup pulls the whole set; later syncs pull only the last interval plus skew.
+ * The current size is exported by SessionTokenMetrics.
+ */
+@ApplicationScoped
+public class RevocationWatermarks {
+
+    private static final Logger LOG = Logger.getLogger(RevocationWatermarks.class);
+    private static final String KEY = "session:revoked_before";
+    // 인스턴스 간 시계 차이 / 늦게 도착한 ZADD 를 흡수하기 위한 재조회 구간
+    private static final long SKEW_MARGIN_MS = 5_000;
+
+    @Inject ReactiveRedisDataSource redis;
+    @Inject Vertx vertx;
+    @Inject SessionTokenMetrics metrics;
+
+    @ConfigProperty(name = "session.token.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "session.token.revocation.sync-interval.ms", defaultValue = "1000")
+    long syncIntervalMs;
+
+    @ConfigProperty(name = "session.ttl.seconds", defaultValue = "1800")
+    int sessionTtlSeconds;
+
+    private final ConcurrentHashMap<Long, Long> watermarks = new ConcurrentHashMap<>();
+    private ReactiveSortedSetCommands<String, String> zset;
+    private volatile long lastSyncMillis;
+    // 첫 sync 완료 전에는 로컬 watermark 만으로 검증하지 않는다
+    private volatile boolean synced;
+
+    @PostConstruct
+    void init() {
+        zset = redis.sortedSet(String.class);
+        metrics.bindRevocationSet(watermarks);
+    }
+
+    void onStart(@Observes StartupEvent ev) {
+        if (!enabled) {
+            return;
+        }
+        lastSyncMillis = System.currentTimeMillis() - ttlMillis();
+        sync();
+        vertx.setPeriodic(syncIntervalMs, id -> sync());
+    }
+
+    /**
+     * @return tokens of this account issued before the returned millis are revoked (0 = none)
+     */
+    public long revokedBefore(long accountId) {
+        Long watermark = watermarks.get(accountId);
+        return watermark != null ? watermark : 0L;
+    }
+
+    public boolean isSynced() {
+        return synced;
+    }
+
+    /**
+     * 첫 sync 전 검증용: 이 계정의 watermark 를 Redis 에서 직접 읽어 로컬 값과 합침
+     */
+    public Uni<Long> fetchRevokedBefore(long accountId) {
+        return zset.zscore(KEY, String.valueOf(accountId))
+                .map(score -> score != null
+                        ? watermarks.merge(accountId, score.longValue(), Math::max)
+                        : revokedBefore(accountId));
+    }
+
+    public Uni<Void> revoke(long accountId, long beforeMillis) {
+        watermarks.merge(accountId, beforeMillis, Math::max);
+        return zset.zadd(KEY, new ZAddArgs().gt(), beforeMillis, String.valueOf(accountId))
+                .onFailure().invoke(e -> LOG.errorf(e, "Failed to publish revocation: account_id=%d", accountId))
+                .replaceWithVoid();
+    }
+
+    void sync() {
+        long now = System.currentTimeMillis();
+        double from = lastSyncMillis - SKEW_MARGIN_MS;
+        zset.zrangebyscoreWithScores(KEY, new ScoreRange<>(from, Double.POSITIVE_INFINITY))
+                .subscribe().with(
+                        values -> {
+                            apply(values);
+                            lastSyncMillis = now;
+                            if (!synced) {
+                                synced = true;
+                                LOG.infof("Revocation set loaded: accounts=%d", watermarks.size());
+                            }
+                            prune(now);
+                        },
+                        e -> {
+                            metrics.incrementSyncFailure();
+                            LOG.warnf(e, "Revocation set sync failed");
+                        });
+    }
+
+    private void apply(List<ScoredValue<String>> values) {
+        for (ScoredValue<String> value : values) {
+            watermarks.merge(Long.parseLong(value.value()), (long) value.score(), Math::max);
+        }
+    }
+
+    private void prune(long now) {
+        long expiredBefore = now - ttlMillis();
+        watermarks.values().removeIf(watermark -> watermark < expiredBefore);
+        zset.zremrangebyscore(KEY, new ScoreRange<>(Double.NEGATIVE_INFINITY, (double) expiredBefore))
+                .subscribe().with(
+                        removed -> { },
+                        e -> LOG.warnf(e, "Revocation set prune failed"));
+    }
+
+    private long ttlMillis() {
+        return sessionTtlSeconds * 1000L;
+    }
+}
@@ -0,0 +1,150 @@
+package com.hts.auth.infrastructre.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hts.auth.infrastructre.metrics.NearCacheMetrics;
+import com.hts.auth.infrastructre.redis.SessionKeys;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-process sessionId → accountId cache in front of Redis.
+ * Coherence: session scripts PUBLISH "<epochMillis>|<id>,<id>..." on the invalidation channel
+ * whenever they delete sessions; every instance evicts on receipt. Entries also expire after a
+ * short local TTL, which bounds staleness if a message is lost and keeps Redis sliding TTL alive.
+ * Entries are keyed by accountId (recoverable from the "<accountId>:<secret>" session id, one session per
+ * account), so invalidating an account is one removal and one stripe bump rather than a scan of the cache.
+ */
+@ApplicationScoped
+public class SessionNearCache {
+
+    private static final Logger LOG = Logger.getLogger(SessionNearCache.class);
+    private static final String CACHE_NAME = "session_near_cache";
+    private static final int STRIPES = 64;
+
+    @Inject ReactiveRedisDataSource redis;
+    @Inject NearCacheMetrics metrics;
+
+    @ConfigProperty(name = "session.near-cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "session.near-cache.max-size", defaultValue = "100000")
+    long maxSize;
+
+    @ConfigProperty(name = "session.near-cache.ttl.ms", defaultValue = "5000")
+    long ttlMs;
+
+    @ConfigProperty(name = "session.invalidation.channel", defaultValue = "session-invalidation")
+    String channel;
+
+    // accountId → 현재 sessionId
+    private Cache<Long, String> cache;
+
+    // stripe 별 invalidation 세대. 조회 시작 이후 세대가 바뀌면 결과를 캐시에 넣지 않는다 (logout 이전 결과 방지)
+    private final AtomicLongArray epochs = new AtomicLongArray(STRIPES);
+
+    // 구독이 확립되기 전에는 캐시를 사용하지 않는다
+    private volatile boolean subscribed;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        metrics.bind(cache, CACHE_NAME);
+    }
+
+    void onStart(@Observes StartupEvent ev) {
+        if (!enabled) {
+            return;
+        }
+        redis.pubsub(String.class)
+                .subscribe(channel, this::onInvalidation)
+                .subscribe().with(
+                        subscriber -> {
+                            subscribed = true;
+                            LOG.infof("Session near-cache subscribed to channel=%s", channel);
+                        },
+                        e -> LOG.errorf(e, "Session near-cache subscription failed, cache disabled: channel=%s", channel));
+    }
+
+    public String channel() {
+        return channel;
+    }
+
+    /**
+     * @return cached accountId, or null on miss / when the cache is not active
+     */
+    public Long get(String sessionId) {
+        if (!subscribed) {
+            return null;
+        }
+        long accountId = SessionKeys.accountIdOf(sessionId);
+        if (accountId == 0L) {
+            return null;
+        }
+        return sessionId.equals(cache.getIfPresent(accountId)) ? accountId : null;
+    }
+
+    public long epoch(String sessionId) {
+        return epochs.get(stripe(SessionKeys.accountIdOf(sessionId)));
+    }
+
+    public void putIfUnchanged(String sessionId, long accountId, long epoch) {
+        if (!subscribed) {
+            return;
+        }
+        cache.put(accountId, sessionId);
+        // put 이후 재확인: 그 사이 invalidation 이 있었다면 되돌린다
+        if (epochs.get(stripe(accountId)) != epoch) {
+            cache.asMap().remove(accountId, sessionId);
+            metrics.incrementStaleFillSkipped(CACHE_NAME);
+        }
+    }
+
+    public void invalidate(String sessionId) {
+        long accountId = SessionKeys.accountIdOf(sessionId);
+        epochs.incrementAndGet(stripe(accountId));
+        // 이미 새 세션으로 교체된 항목은 남겨 둔다
+        cache.asMap().remove(accountId, sessionId);
+    }
+
+    public void invalidateAccount(long accountId) {
+        epochs.incrementAndGet(stripe(accountId));
+        cache.invalidate(accountId);
+    }
+
+    void onInvalidation(String payload) {
+        int sep = payload.indexOf('|');
+        if (sep < 0) {
+            LOG.warnf("Malformed session invalidation message: %s", payload);
+            return;
+        }
+        long publishedAt = Long.parseLong(payload, 0, sep, 10);
+        int from = sep + 1;
+        while (from < payload.length()) {
+            int to = payload.indexOf(',', from);
+            if (to < 0) {
+                to = payload.length();
+            }
+            invalidate(payload.substring(from, to));
+            from = to + 1;
+        }
+        metrics.recordInvalidation(CACHE_NAME, System.currentTimeMillis() - publishedAt);
+    }
+
+    private static int stripe(long accountId) {
+        return (Long.hashCode(accountId) & 0x7fffffff) % STRIPES;
+    }
+}
@@ -1,64 +1,86 @@
 package com.hts.auth.infrastructre.event;
 
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.hts.auth.infrastructre.executor.BlockingExecutor;
 import com.hts.generated.events.AccountCreatedEvent;
 import com.hts.generated.events.AccountDeletedEvent;
 import io.smallrye.mutiny.Uni;
-import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.smallrye.reactive.messaging.kafka.KafkaRecord;
+import io.smallrye.reactive.messaging.kafka.KafkaRecordBatch;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
 import org.jboss.logging.Logger;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Batch consumers (mp.messaging.incoming.*.batch=true). One poll becomes one multi-row statement;
+ * AccountEventService retries the batch statement and isolates failures per record. The batch is acked only
+ * when every record was applied; otherwise it is nacked and the channel's failure-strategy (dead-letter-queue)
+ * keeps the records. Unparseable records can never succeed, so they are logged and skipped.
+ */
 @ApplicationScoped
 public class KafkaEventConsumer {
 
     private static final Logger LOG = Logger.getLogger(KafkaEventConsumer.class);
 
     @Inject com.hts.auth.domain.service.AccountEventService accountEventService;
+    @Inject BlockingExecutor blocking;
 
     @Incoming("account-created-events")
-    public Uni<Void> consumeAccountCreatedEvents(org.eclipse.microprofile.reactive.messaging.Message<byte[]> message) {
+    public Uni<Void> consumeAccountCreatedEvents(KafkaRecordBatch<Long, byte[]> batch) {
         return Uni.createFrom().item(() -> {
-                    try {
-                        return AccountCreatedEvent.parseFrom(message.getPayload());
-                    } catch (InvalidProtocolBufferException e) {
-                        LOG.errorf(e, "Failed to parse AccountCreatedEvent");
-                        return null;
+                    // 같은 account_id 가 batch 안에 여러 번 오면 마지막 이벤트 기준
+                    Map<Long, String> passwords = new LinkedHashMap<>();
+                    for (KafkaRecord<Long, byte[]> record : batch) {
+                        try {
+                            AccountCreatedEvent event = AccountCreatedEvent.parseFrom(record.getPayload());
+                            passwords.put(event.getAccountId(), event.getPassword());
+                        } catch (InvalidProtocolBufferException e) {
+                            LOG.errorf(e, "Failed to parse AccountCreatedEvent: partition=%d, offset=%d",
+                                    record.getPartition(), record.getOffset());
+                        }
                     }
+                    return passwords;
                 })
-                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool())
-                .flatMap(event -> event == null ? Uni.createFrom().voidItem() :
-                        accountEventService.createAccount(event.getAccountId(), event.getPassword()))
-                .onFailure().retry().atMost(3)
-                .onFailure().recoverWithItem(() -> {
-                    LOG.errorf("Failed to process AccountCreatedEvent after retries");
-                    return null;
-                })
-                .eventually(() -> Uni.createFrom().completionStage(message.ack()))
-                .replaceWithVoid();
+                .runSubscriptionOn(blocking.executor())
+                .flatMap(passwords -> passwords.isEmpty() ? Uni.createFrom().voidItem() :
+                        accountEventService.createAccounts(passwords))
+                .onItem().transformToUni(v -> Uni.createFrom().completionStage(batch.ack()))
+                .onFailure().recoverWithUni(e -> {
+                    LOG.errorf(e, "Failed to process AccountCreatedEvent batch, nacking: size=%d", batch.getRecords().size());
+                    return Uni.createFrom().completionStage(batch.nack(e));
+                });
     }
 
     @Incoming("account-deleted-events")
-    public Uni<Void> consumeAccountDeletedEvents(org.eclipse.microprofile.reactive.messaging.Message<byte[]> message) {
+    public Uni<Void> consumeAccountDeletedEvents(KafkaRecordBatch<Long, byte[]> batch) {
         return Uni.createFrom().item(() -> {
-                    try {
-                        return AccountDeletedEvent.parseFrom(message.getPayload());
-                    } catch (InvalidProtocolBufferException e) {
-                        LOG.errorf(e, "Failed to parse AccountDeletedEvent");
-                        return null;
+                    Set<Long> accountIds = new LinkedHashSet<>();
+                    for (KafkaRecord<Long, byte[]> record : batch) {
+                        try {
+                            accountIds.add(AccountDeletedEvent.parseFrom(record.getPayload()).getAccountId());
+                        } catch (InvalidProtocolBufferException e) {
+                            LOG.errorf(e, "Failed to parse AccountDeletedEvent: partition=%d, offset=%d",
+                                    record.getPartition(), record.getOffset());
+                        }
                     }
+                    return (List<Long>) new ArrayList<>(accountIds);
                 })
-                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool())
-                .flatMap(event -> event == null ? Uni.createFrom().voidItem() :
-                        accountEventService.deleteAccount(event.getAccountId()))
-                .onFailure().retry().atMost(3)
-                .onFailure().recoverWithItem(() -> {
-                    LOG.errorf("Failed to process AccountDeletedEvent after retries");
-                    return null;
-                })
-                .eventually(() -> Uni.createFrom().completionStage(message.ack()))
-                .replaceWithVoid();
+                .runSubscriptionOn(blocking.executor())
+                .flatMap(accountIds -> accountIds.isEmpty() ? Uni.createFrom().voidItem() :
+                        accountEventService.deleteAccounts(accountIds))
+                .onItem().transformToUni(v -> Uni.createFrom().completionStage(batch.ack()))
+                .onFailure().recoverWithUni(e -> {
+                    LOG.errorf(e, "Failed to process AccountDeletedEvent batch, nacking: size=%d", batch.getRecords().size());
+                    return Uni.createFrom().completionStage(batch.nack(e));
+                });
     }
 
 }
@@ -0,0 +1,234 @@
+package com.hts.auth.infrastructre.event;
+
+import com.hts.auth.infrastructre.metrics.OutboxMetrics;
+import com.hts.generated.events.AccountStatusChangedEvent;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.TimeoutException;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.MutinyEmitter;
+import io.smallrye.reactive.messaging.kafka.KafkaRecord;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.OnOverflow;
+import org.jboss.logging.Logger;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.Result;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.jooq.impl.DSL.field;
+import static org.jooq.impl.DSL.table;
+
+/**
+ * account_status_outbox → Kafka relay.
+ * Each poll claims up to batch-size rows in one short UPDATE ... RETURNING (claimed_by / claimed_at, inner
+ * SELECT with SKIP LOCKED so instances never block each other), then publishes them keyed by account_id
+ * with no transaction or row lock held, and deletes rows once their ack has arrived.
+ * <ul>
+ *   <li>A row is only claimable when its account has no older row left, i.e. an account's next event waits
+ *       until the previous one is acked and deleted, on any instance. Per-account order survives retries and
+ *       multiple relays.</li>
+ *   <li>A failed send releases its claim so the next poll retries it. A send still pending after send-timeout
+ *       keeps its claim: a late ack deletes the row on a later poll, otherwise the claim expires after
+ *       claim-timeout and the row is published again (at-least-once).</li>
+ * </ul>
+ */
+@ApplicationScoped
+public class OutboxRelay {
+
+    private static final Logger LOG = Logger.getLogger(OutboxRelay.class);
+    private static final String STATUS_OUTBOX = "account_status_outbox";
+
+    private static final String CLAIM_SQL = """
+            UPDATE account_status_outbox o
+            SET claimed_by = ?, claimed_at = now()
+            WHERE o.id IN (
+                SELECT c.id
+                FROM account_status_outbox c
+                WHERE (c.claimed_at IS NULL OR c.claimed_at < now() - ? * interval '1 millisecond')
+                  AND NOT EXISTS (
+                      SELECT 1 FROM account_status_outbox older
+                      WHERE older.account_id = c.account_id AND older.id < c.id)
+                ORDER BY c.id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            RETURNING o.id, o.account_id, o.status, o.reason, o.created_at
+            """;
+
+    @Inject DSLContext dsl;
+    @Inject OutboxMetrics metrics;
+
+    @Inject
+    @Channel("account-status-changed-events")
+    @OnOverflow(value = OnOverflow.Strategy.BUFFER, bufferSize = 1024)
+    MutinyEmitter<byte[]> emitter;
+
+    @ConfigProperty(name = "outbox.relay.enabled", defaultValue = "true")
+    boolean enabled;
+
+    // OnOverflow bufferSize 이하로 유지
+    @ConfigProperty(name = "outbox.relay.batch-size", defaultValue = "500")
+    int batchSize;
+
+    @ConfigProperty(name = "outbox.relay.poll-interval.ms", defaultValue = "100")
+    long pollIntervalMs;
+
+    @ConfigProperty(name = "outbox.relay.send-timeout.ms", defaultValue = "10000")
+    long sendTimeoutMs;
+
+    @ConfigProperty(name = "outbox.relay.claim-timeout.ms", defaultValue = "60000")
+    long claimTimeoutMs;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    // ack 는 send-timeout 이후에도 도착할 수 있으므로 poll 마다 모아서 삭제
+    private final Queue<Long> acked = new ConcurrentLinkedQueue<>();
+    private ScheduledExecutorService scheduler;
+    private volatile long oldestPendingMillis;
+
+    void onStart(@Observes StartupEvent ev) {
+        if (!enabled) {
+            return;
+        }
+        if (claimTimeoutMs <= sendTimeoutMs) {
+            throw new IllegalStateException("outbox.relay.claim-timeout.ms must be greater than outbox.relay.send-timeout.ms");
+        }
+        metrics.bindOldestPendingAge(() -> {
+            long oldest = oldestPendingMillis;
+            return oldest == 0 ? 0 : System.currentTimeMillis() - oldest;
+        });
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "outbox-relay");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::relay, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    void onShutdown(@Observes ShutdownEvent ev) {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(sendTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            deleteAcked();
+        }
+    }
+
+    void relay() {
+        try {
+            // 가득 찬 batch 면 backlog 가 남았다는 뜻이므로 바로 다음 batch
+            int claimed;
+            do {
+                claimed = relayBatch();
+            } while (claimed == batchSize && !scheduler.isShutdown());
+        } catch (Exception e) {
+            metrics.incrementFailure();
+            LOG.errorf(e, "Outbox relay batch failed, will retry");
+        }
+    }
+
+    private int relayBatch() {
+        deleteAcked();
+
+        // autocommit 단일 문장: 행 lock 은 claim 하는 동안만
+        Result<Record> rows = dsl.fetch(CLAIM_SQL, instanceId, claimTimeoutMs, batchSize);
+        if (rows.isEmpty()) {
+            oldestPendingMillis = 0;
+            return 0;
+        }
+        metrics.recordBatch(rows.size());
+
+        long oldest = Long.MAX_VALUE;
+        Queue<Long> failed = new ConcurrentLinkedQueue<>();
+        List<Uni<Void>> sends = new ArrayList<>(rows.size());
+        for (Record row : rows) {
+            long id = row.get("id", Long.class);
+            long accountId = row.get("account_id", Long.class);
+            String reason = row.get("reason", String.class);
+            long createdAt = row.get("created_at", Timestamp.class).getTime();
+            oldest = Math.min(oldest, createdAt);
+
+            AccountStatusChangedEvent event = AccountStatusChangedEvent.newBuilder()
+                    .setAccountId(accountId)
+                    .setStatus(row.get("status", String.class))
+                    .setReason(reason != null ? reason : "")
+                    .setTimestamp(createdAt)
+                    .build();
+            // 같은 계정의 이벤트는 같은 partition 으로. claim 규칙상 한 batch 에 계정당 한 행
+            sends.add(emitter.sendMessage(KafkaRecord.of(accountId, event.toByteArray()))
+                    .invoke(() -> {
+                        acked.add(id);
+                        metrics.recordPublished(System.currentTimeMillis() - createdAt);
+                    })
+                    .onFailure().recoverWithItem(e -> {
+                        failed.add(id);
+                        LOG.warnf(e, "Outbox publish failed: id=%d account_id=%d", id, accountId);
+                        return null;
+                    }));
+        }
+        oldestPendingMillis = oldest;
+
+        try {
+            Uni.join().all(sends).andFailFast()
+                    .await().atMost(Duration.ofMillis(sendTimeoutMs));
+        } catch (TimeoutException e) {
+            // 취소하지 않음: 늦은 ack 는 다음 poll 에서 삭제, 끝내 ack 가 없으면 claim-timeout 후 재발행
+            metrics.incrementFailure();
+            LOG.warnf("Outbox publish not acked within %d ms, rows stay claimed", sendTimeoutMs);
+        }
+
+        deleteAcked();
+        if (!failed.isEmpty()) {
+            metrics.incrementFailure();
+            releaseClaims(new ArrayList<>(failed));
+        }
+        return rows.size();
+    }
+
+    private void deleteAcked() {
+        List<Long> ids = new ArrayList<>();
+        for (Long id; (id = acked.poll()) != null; ) {
+            ids.add(id);
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            dsl.deleteFrom(table(STATUS_OUTBOX))
+                    .where(field("id", Long.class).in(ids))
+                    .execute();
+        } catch (RuntimeException e) {
+            // 다음 poll 에서 다시 삭제. 그 전에 claim 이 만료되면 한 번 더 발행될 수 있음 (at-least-once)
+            acked.addAll(ids);
+            throw e;
+        }
+    }
+
+    /**
+     * 발행 실패한 행은 claim-timeout 을 기다리지 않고 다음 poll 에서 다시 가져가도록 claim 해제
+     */
+    private void releaseClaims(List<Long> ids) {
+        dsl.update(table(STATUS_OUTBOX))
+                .setNull(field("claimed_by"))
+                .setNull(field("claimed_at"))
+                .where(field("id", Long.class).in(ids))
+                .and(field("claimed_by", String.class).eq(instanceId))
+                .execute();
+    }
+}
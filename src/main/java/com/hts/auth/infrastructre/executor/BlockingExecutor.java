@@ -0,0 +1,178 @@
+package com.hts.auth.infrastructre.executor;
+
+import com.hts.auth.infrastructre.metrics.VirtualThreadMetrics;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jdk.jfr.consumer.RecordingStream;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Where blocking (JDBC) work runs.
+ * WORKER: Quarkus default worker pool (기존 동작).
+ * VIRTUAL: one virtual thread per task, gated by a semaphore sized like the JDBC pool so waiting tasks park
+ * cheaply here instead of queueing on Agroal. Pinning is reported from JFR and carrier utilization is
+ * sampled from carrier-thread CPU time.
+ */
+@ApplicationScoped
+public class BlockingExecutor {
+
+    private static final Logger LOG = Logger.getLogger(BlockingExecutor.class);
+    private static final String CARRIER_PREFIX = "ForkJoinPool-";
+    private static final long SAMPLE_INTERVAL_MS = 5_000;
+
+    public enum Mode { WORKER, VIRTUAL }
+
+    @Inject VirtualThreadMetrics metrics;
+
+    @ConfigProperty(name = "execution.mode", defaultValue = "WORKER")
+    Mode mode;
+
+    // quarkus.datasource.jdbc.max-size 와 맞출 것
+    @ConfigProperty(name = "execution.virtual.max-concurrency", defaultValue = "16")
+    int maxConcurrency;
+
+    @ConfigProperty(name = "execution.virtual.acquire-timeout.ms", defaultValue = "3000")
+    long acquireTimeoutMs;
+
+    @ConfigProperty(name = "execution.virtual.pinned-threshold.ms", defaultValue = "20")
+    long pinnedThresholdMs;
+
+    private ExecutorService virtualExecutor;
+    private Semaphore permits;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private RecordingStream pinnedEvents;
+    private ScheduledExecutorService sampler;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private long lastCarrierCpuNanos;
+    private long lastSampleNanos;
+    private volatile double carrierUtilization;
+
+    // Kafka consumer 가 StartupEvent 전에 executor() 를 부를 수 있으므로 executor 는 bean 생성 시 준비
+    @PostConstruct
+    void init() {
+        if (mode == Mode.VIRTUAL) {
+            virtualExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("auth-vt-", 0).factory());
+            permits = new Semaphore(maxConcurrency);
+        }
+    }
+
+    void onStart(@Observes StartupEvent ev) {
+        if (mode != Mode.VIRTUAL) {
+            return;
+        }
+        metrics.bind(inFlight::get, BlockingExecutor::carrierParallelism, () -> carrierUtilization);
+
+        pinnedEvents = new RecordingStream();
+        pinnedEvents.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(pinnedThresholdMs));
+        pinnedEvents.onEvent("jdk.VirtualThreadPinned", e -> metrics.recordPinned(e.getDuration().toNanos()));
+        pinnedEvents.startAsync();
+
+        sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "vt-carrier-sampler");
+            t.setDaemon(true);
+            return t;
+        });
+        sampler.scheduleAtFixedRate(this::sampleCarriers, SAMPLE_INTERVAL_MS, SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        LOG.infof("Blocking work runs on virtual threads: max-concurrency=%d", maxConcurrency);
+    }
+
+    void onShutdown(@Observes ShutdownEvent ev) {
+        if (sampler != null) {
+            sampler.shutdownNow();
+        }
+        if (pinnedEvents != null) {
+            pinnedEvents.close();
+        }
+        if (virtualExecutor != null) {
+            virtualExecutor.shutdown();
+        }
+    }
+
+    /**
+     * 스레드 전환만 필요한 작업용 (permit 없음)
+     */
+    public Executor executor() {
+        return mode == Mode.VIRTUAL ? virtualExecutor : Infrastructure.getDefaultWorkerPool();
+    }
+
+    /**
+     * DB 커넥션을 잡는 blocking 작업. VIRTUAL 모드에서는 permit 을 얻은 뒤 실행한다
+     */
+    public <T> Uni<T> supply(Supplier<T> task) {
+        if (mode != Mode.VIRTUAL) {
+            return Uni.createFrom().item(task).runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+        }
+        return Uni.createFrom().item(() -> runWithPermit(task)).runSubscriptionOn(virtualExecutor);
+    }
+
+    private <T> T runWithPermit(Supplier<T> task) {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a DB permit", e);
+        }
+        metrics.recordPermitWait(System.nanoTime() - start);
+        if (!acquired) {
+            metrics.incrementPermitTimeout();
+            throw new IllegalStateException("No DB permit available within " + acquireTimeoutMs + "ms");
+        }
+        inFlight.incrementAndGet();
+        try {
+            return task.get();
+        } finally {
+            inFlight.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    private void sampleCarriers() {
+        try {
+            long cpu = 0;
+            for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds(), 0)) {
+                if (info != null && info.getThreadName().startsWith(CARRIER_PREFIX)) {
+                    long t = threads.getThreadCpuTime(info.getThreadId());
+                    if (t > 0) {
+                        cpu += t;
+                    }
+                }
+            }
+            long now = System.nanoTime();
+            if (lastSampleNanos != 0 && now > lastSampleNanos) {
+                double used = Math.max(0, cpu - lastCarrierCpuNanos);
+                carrierUtilization = Math.min(1.0, used / ((double) (now - lastSampleNanos) * carrierParallelism()));
+            }
+            lastCarrierCpuNanos = cpu;
+            lastSampleNanos = now;
+        } catch (Exception e) {
+            LOG.warnf(e, "Carrier utilization sampling failed");
+        }
+    }
+
+    private static int carrierParallelism() {
+        return Integer.getInteger("jdk.virtualThreadScheduler.parallelism", Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,188 @@
+package com.hts.auth.infrastructre.executor;
+
+import io.smallrye.mutiny.TimeoutException;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Per-key serial execution of asynchronous tasks: tasks with the same key run one after another in
+ * submission order (the next starts when the previous Uni terminates), different keys run fully in parallel.
+ * A lane exists only while its key has pending work, so idle keys cost nothing.
+ * Waiting tasks with an equal coalesce key share one execution and its result.
+ * Each execution is bounded by taskTimeout for its callers: one that has not produced an item by then is
+ * reported to them as a Mutiny TimeoutException. The execution itself is not cancelled (cancelling would not
+ * stop a JDBC read, hash or Redis script already in flight) and the lane stays busy until it actually
+ * terminates, so tasks of one key never overlap. A task that never terminates therefore stalls its lane;
+ * the tasks passed in here are bounded by their own DB / Redis timeouts, and further submissions for that key
+ * are rejected once maxPending are waiting.
+ * Lane state is only touched inside ConcurrentHashMap.compute, i.e. serialized per key without a
+ * global lock.
+ */
+public class KeyedMailbox<T> {
+
+    public interface Listener {
+        void onStart(long waitNanos);
+
+        void onCoalesced();
+
+        void onRejected();
+
+        void onTimeout();
+    }
+
+    private final ConcurrentHashMap<Long, Lane<T>> lanes = new ConcurrentHashMap<>();
+    private final int maxPending;
+    private final Duration taskTimeout;
+    private final Listener listener;
+
+    public KeyedMailbox(int maxPending, Duration taskTimeout, Listener listener) {
+        if (maxPending < 1) {
+            throw new IllegalArgumentException("maxPending must be >= 1: " + maxPending);
+        }
+        if (taskTimeout.isZero() || taskTimeout.isNegative()) {
+            throw new IllegalArgumentException("taskTimeout must be positive: " + taskTimeout);
+        }
+        this.maxPending = maxPending;
+        this.taskTimeout = taskTimeout;
+        this.listener = listener;
+    }
+
+    /**
+     * @param coalesceKey 대기 중인 task 중 같은 coalesceKey 가 있으면 그 결과를 공유 (null 이면 합치지 않음).
+     *                    실행 전까지 lane 에 보관되므로 비밀값 자체가 아닌 digest 등을 넘길 것
+     * @return task 결과. lane 의 대기 task 가 maxPending 이면 RejectedExecutionException
+     */
+    public Uni<T> submit(long key, Object coalesceKey, Supplier<Uni<T>> task) {
+        return Uni.createFrom().deferred(() -> enqueue(key, coalesceKey, task));
+    }
+
+    private Uni<T> enqueue(long key, Object coalesceKey, Supplier<Uni<T>> task) {
+        Task<T> created = new Task<>(task, coalesceKey, System.nanoTime());
+        Admission[] admission = new Admission[1];
+        List<Task<T>> target = new ArrayList<>(1);
+
+        lanes.compute(key, (k, lane) -> {
+            if (lane == null) {
+                lane = new Lane<>();
+            }
+            Task<T> waiting = coalesceKey != null ? lane.waiting.get(coalesceKey) : null;
+            if (waiting != null) {
+                admission[0] = Admission.COALESCED;
+                target.add(waiting);
+                return lane;
+            }
+            if (lane.queue.size() >= maxPending) {
+                admission[0] = Admission.REJECTED;
+                return lane;
+            }
+            lane.queue.addLast(created);
+            if (coalesceKey != null) {
+                lane.waiting.put(coalesceKey, created);
+            }
+            // lane 이 쉬고 있었으면 이 호출이 drain 을 시작
+            admission[0] = lane.running ? Admission.QUEUED : Admission.STARTED;
+            lane.running = true;
+            target.add(created);
+            return lane;
+        });
+
+        switch (admission[0]) {
+            case REJECTED:
+                listener.onRejected();
+                return Uni.createFrom().failure(new RejectedExecutionException("Too many pending tasks for key " + key));
+            case COALESCED:
+                listener.onCoalesced();
+                break;
+            case STARTED:
+                runNext(key);
+                break;
+            default:
+                break;
+        }
+        // minimalCompletionStage: 한 caller 의 cancel 이 공유 결과를 cancel 하지 않도록
+        return Uni.createFrom().completionStage(target.get(0).result.minimalCompletionStage());
+    }
+
+    private void runNext(long key) {
+        List<Task<T>> next = new ArrayList<>(1);
+        lanes.compute(key, (k, lane) -> {
+            if (lane == null || lane.queue.isEmpty()) {
+                return null;
+            }
+            Task<T> task = lane.queue.pollFirst();
+            if (task.coalesceKey != null) {
+                lane.waiting.remove(task.coalesceKey, task);
+            }
+            next.add(task);
+            return lane;
+        });
+        if (next.isEmpty()) {
+            return;
+        }
+
+        Task<T> task = next.get(0);
+        listener.onStart(System.nanoTime() - task.submittedAt);
+        Uni<T> execution;
+        try {
+            execution = task.supplier.get();
+        } catch (RuntimeException e) {
+            execution = Uni.createFrom().failure(e);
+        }
+        // timeout 은 caller 에게만 실패를 알림. 실행은 cancel 하지 않고 끝날 때까지 lane 을 점유
+        ScheduledFuture<?> timer = Infrastructure.getDefaultWorkerPool().schedule(() -> {
+            if (task.result.completeExceptionally(new TimeoutException())) {
+                listener.onTimeout();
+            }
+        }, taskTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        // caller 구독과 무관하게 mailbox 가 직접 구독 → caller 가 cancel 해도 lane 이 멈추지 않음
+        execution.subscribe().with(
+                item -> {
+                    timer.cancel(false);
+                    task.result.complete(item);
+                    runNext(key);
+                },
+                failure -> {
+                    timer.cancel(false);
+                    task.result.completeExceptionally(failure);
+                    runNext(key);
+                });
+    }
+
+    public int lanes() {
+        return lanes.size();
+    }
+
+    private enum Admission { STARTED, QUEUED, COALESCED, REJECTED }
+
+    private static final class Lane<T> {
+        final ArrayDeque<Task<T>> queue = new ArrayDeque<>();
+        final Map<Object, Task<T>> waiting = new HashMap<>();
+        boolean running;
+    }
+
+    private static final class Task<T> {
+        final Supplier<Uni<T>> supplier;
+        final Object coalesceKey;
+        final long submittedAt;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+
+        Task(Supplier<Uni<T>> supplier, Object coalesceKey, long submittedAt) {
+            this.supplier = supplier;
+            this.coalesceKey = coalesceKey;
+            this.submittedAt = submittedAt;
+        }
+    }
+}
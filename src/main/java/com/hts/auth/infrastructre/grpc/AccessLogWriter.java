@@ -0,0 +1,189 @@
+package com.hts.auth.infrastructre.grpc;
+
+import com.hts.auth.infrastructre.metrics.GrpcMetrics;
+import io.grpc.Status;
+import io.quarkus.runtime.ShutdownEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sampled gRPC access log.
+ * Request threads only claim a slot in a preallocated ring (fixed layout: method ref, status code, latency,
+ * timestamp) and never format or do I/O; a background thread serializes records as JSON lines.
+ * When the ring is full the record is dropped and counted instead of blocking the caller.
+ */
+@ApplicationScoped
+public class AccessLogWriter {
+
+    private static final Logger LOG = Logger.getLogger(AccessLogWriter.class);
+    private static final Status.Code[] CODES = Status.Code.values();
+
+    @Inject GrpcMetrics grpcMetrics;
+
+    @ConfigProperty(name = "access-log.enabled", defaultValue = "true")
+    boolean enabled;
+
+    // power of two
+    @ConfigProperty(name = "access-log.buffer-size", defaultValue = "8192")
+    int bufferSize;
+
+    @ConfigProperty(name = "access-log.ok-sample-rate", defaultValue = "0.01")
+    double okSampleRate;
+
+    // 이 값 이상 걸린 요청은 OK 여도 항상 기록
+    @ConfigProperty(name = "access-log.slow-threshold.ms", defaultValue = "100")
+    long slowThresholdMs;
+
+    // stdout | file
+    @ConfigProperty(name = "access-log.target", defaultValue = "stdout")
+    String target;
+
+    @ConfigProperty(name = "access-log.file", defaultValue = "access.log")
+    String file;
+
+    private int mask;
+    private String[] methods;
+    private int[] codes;
+    private long[] latencies;
+    private long[] timestamps;
+    private AtomicLongArray published;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    private long slowThresholdNanos;
+
+    private Thread consumer;
+    private volatile boolean running;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        if (Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalStateException("access-log.buffer-size must be a power of two");
+        }
+        mask = bufferSize - 1;
+        methods = new String[bufferSize];
+        codes = new int[bufferSize];
+        latencies = new long[bufferSize];
+        timestamps = new long[bufferSize];
+        published = new AtomicLongArray(bufferSize);
+        for (int i = 0; i < bufferSize; i++) {
+            published.set(i, -1);
+        }
+        slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+
+        running = true;
+        consumer = new Thread(this::drainLoop, "grpc-access-log");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    void onShutdown(@Observes ShutdownEvent ev) {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void record(String method, Status.Code code, long durationNanos) {
+        if (!enabled || !sampled(code, durationNanos)) {
+            return;
+        }
+        long seq;
+        do {
+            seq = tail.get();
+            if (seq - head >= bufferSize) {
+                grpcMetrics.incrementAccessLogDropped();
+                return;
+            }
+        } while (!tail.compareAndSet(seq, seq + 1));
+
+        int idx = (int) (seq & mask);
+        methods[idx] = method;
+        codes[idx] = code.ordinal();
+        latencies[idx] = durationNanos;
+        timestamps[idx] = System.currentTimeMillis();
+        published.lazySet(idx, seq);
+    }
+
+    private boolean sampled(Status.Code code, long durationNanos) {
+        if (code != Status.Code.OK || durationNanos >= slowThresholdNanos) {
+            return true;
+        }
+        return okSampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < okSampleRate;
+    }
+
+    private void drainLoop() {
+        StringBuilder line = new StringBuilder(256);
+        try (Writer out = openWriter()) {
+            while (running || head != tail.get()) {
+                long seq = head;
+                int idx = (int) (seq & mask);
+                if (published.get(idx) != seq) {
+                    out.flush();
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                    continue;
+                }
+                line.setLength(0);
+                format(line, methods[idx], CODES[codes[idx]], latencies[idx], timestamps[idx]);
+                methods[idx] = null;
+                head = seq + 1;
+                out.append(line);
+            }
+            out.flush();
+        } catch (IOException e) {
+            LOG.errorf(e, "gRPC access log writer failed");
+        }
+    }
+
+    private static void format(StringBuilder sb, String method, Status.Code code, long latencyNanos, long timestamp) {
+        long micros = latencyNanos / 1_000;
+        long fraction = micros % 1_000;
+        sb.append("{\"ts\":").append(timestamp)
+                .append(",\"msg\":\"grpc_request\",\"method\":\"").append(method)
+                .append("\",\"code\":\"").append(code.name())
+                .append("\",\"latency_ms\":").append(micros / 1_000).append('.');
+        if (fraction < 100) sb.append('0');
+        if (fraction < 10) sb.append('0');
+        sb.append(fraction).append("}\n");
+    }
+
+    private Writer openWriter() throws IOException {
+        if ("file".equalsIgnoreCase(target)) {
+            return Files.newBufferedWriter(Path.of(file), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        // System.out 은 닫지 않는다
+        return new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) {
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+}
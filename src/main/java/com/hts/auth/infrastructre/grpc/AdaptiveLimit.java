@@ -0,0 +1,93 @@
+package com.hts.auth.infrastructre.grpc;
+
+/**
+ * Vegas-style adaptive concurrency limit for one method.
+ * Every completed call compares its latency with the lowest latency seen (the no-queue baseline):
+ * queue = limit * (1 - minRtt / rtt). A short queue grows the limit by one, a long queue shrinks it by one,
+ * and a dropped call (deadline / resource exhausted / unavailable) cuts it by a multiplicative factor.
+ * The baseline is re-measured as the minimum over each window of probeInterval samples, so a permanent
+ * latency shift is adopted after one window while a single slow sample never becomes the baseline.
+ */
+public class AdaptiveLimit {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int probeInterval;
+
+    private volatile int limit;
+    private int inflight;
+    private long minRttNanos = Long.MAX_VALUE;
+    private long windowMinRttNanos = Long.MAX_VALUE;
+    private long samples;
+
+    public AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, int probeInterval) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.probeInterval = probeInterval;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inflight >= limit) {
+            return false;
+        }
+        inflight++;
+        return true;
+    }
+
+    /**
+     * @param rttNanos 호출 지연
+     * @param dropped  과부하로 실패한 호출인지 (limit 을 곱셈으로 줄임)
+     */
+    public synchronized void onComplete(long rttNanos, boolean dropped) {
+        inflight--;
+        if (dropped) {
+            limit = Math.max(minLimit, (int) (limit * BACKOFF_RATIO));
+            return;
+        }
+        windowMinRttNanos = Math.min(windowMinRttNanos, rttNanos);
+        minRttNanos = Math.min(minRttNanos, rttNanos);
+        if (++samples % probeInterval == 0) {
+            // window 가 끝나면 그 window 의 최소값을 새 기준으로 (기준이 올라가는 것도 허용)
+            minRttNanos = windowMinRttNanos;
+            windowMinRttNanos = Long.MAX_VALUE;
+        }
+
+        int current = limit;
+        double queue = current * (1.0 - (double) minRttNanos / Math.max(rttNanos, 1));
+        double log = Math.max(1.0, Math.log10(current));
+        if (queue < 3 * log) {
+            // 여유 있음. limit 까지 차 있지 않으면 늘릴 근거가 없음
+            if (inflight * 2 >= current) {
+                limit = Math.min(maxLimit, current + 1);
+            }
+        } else if (queue > 6 * log) {
+            limit = Math.max(minLimit, current - 1);
+        }
+    }
+
+    /**
+     * handler 가 시작되지 못한 호출: slot 만 반환
+     */
+    public synchronized void release() {
+        inflight--;
+    }
+
+    synchronized long minRttNanos() {
+        return minRttNanos;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public synchronized int inflight() {
+        return inflight;
+    }
+
+    public synchronized double utilization() {
+        return (double) inflight / limit;
+    }
+}
@@ -0,0 +1,162 @@
+package com.hts.auth.infrastructre.grpc;
+
+import com.hts.auth.infrastructre.metrics.GrpcMetrics;
+import io.grpc.ForwardingServerCall.SimpleForwardingServerCall;
+import io.grpc.ForwardingServerCallListener.SimpleForwardingServerCallListener;
+import io.grpc.*;
+import io.quarkus.grpc.GlobalInterceptor;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.spi.Prioritized;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission control for unary calls: one AdaptiveLimit per method, calls over the limit are closed
+ * immediately with RESOURCE_EXHAUSTED instead of queueing on the worker pool / JDBC pool.
+ * Priority: while any critical method (ValidateSession by default) is above critical-headroom of its
+ * limit, non-critical methods (Login, Logout) are shed first.
+ * Runs inside GrpcMetricsInterceptor (lower priority), so rejections show up in the request metrics.
+ * Streaming calls are long-lived and not limited.
+ * A call cancelled before close (client deadline, gateway timeout) counts as dropped and backs the limit off.
+ * Its slot is freed at cancel time: Mutiny handlers do not signal when cancelled work actually stops, so
+ * inflight can briefly under-count during overload; the backoff shrinks the limit to compensate.
+ */
+@GlobalInterceptor
+@ApplicationScoped
+public class ConcurrencyLimitInterceptor implements ServerInterceptor, Prioritized {
+
+    private static final Metadata.Key<String> RETRY_PUSHBACK =
+            Metadata.Key.of("grpc-retry-pushback-ms", Metadata.ASCII_STRING_MARSHALLER);
+
+    @Inject GrpcMetrics metrics;
+
+    @ConfigProperty(name = "grpc.limit.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "grpc.limit.initial", defaultValue = "64")
+    int initialLimit;
+
+    @ConfigProperty(name = "grpc.limit.min", defaultValue = "8")
+    int minLimit;
+
+    @ConfigProperty(name = "grpc.limit.max", defaultValue = "2048")
+    int maxLimit;
+
+    @ConfigProperty(name = "grpc.limit.probe-interval", defaultValue = "1000")
+    int probeInterval;
+
+    @ConfigProperty(name = "grpc.limit.critical-methods", defaultValue = "ValidateSession,ValidateSessions")
+    List<String> criticalMethodNames;
+
+    @ConfigProperty(name = "grpc.limit.critical-headroom", defaultValue = "0.8")
+    double criticalHeadroom;
+
+    @ConfigProperty(name = "grpc.limit.retry-pushback.ms", defaultValue = "50")
+    String retryPushbackMs;
+
+    private final ConcurrentHashMap<String, AdaptiveLimit> limits = new ConcurrentHashMap<>();
+    private final Set<AdaptiveLimit> criticalLimits = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public int getPriority() {
+        // GrpcMetricsInterceptor (기본 0) 보다 안쪽에서 실행
+        return -10;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+            ServerCall<ReqT, RespT> serverCall,
+            Metadata headers,
+            ServerCallHandler<ReqT, RespT> next) {
+
+        MethodDescriptor<ReqT, RespT> method = serverCall.getMethodDescriptor();
+        if (!enabled || method.getType() != MethodDescriptor.MethodType.UNARY) {
+            return next.startCall(serverCall, headers);
+        }
+
+        String fullMethodName = method.getFullMethodName();
+        boolean critical = criticalMethodNames.contains(method.getBareMethodName());
+        AdaptiveLimit limit = limits.computeIfAbsent(fullMethodName, name -> newLimit(name, critical));
+
+        if (!critical && criticalUnderPressure()) {
+            return reject(serverCall, fullMethodName, "PRIORITY");
+        }
+        if (!limit.tryAcquire()) {
+            return reject(serverCall, fullMethodName, "LIMIT");
+        }
+
+        long startNanos = System.nanoTime();
+        AtomicBoolean done = new AtomicBoolean();
+
+        ServerCall<ReqT, RespT> limitedCall = new SimpleForwardingServerCall<>(serverCall) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                if (done.compareAndSet(false, true)) {
+                    limit.onComplete(System.nanoTime() - startNanos, isOverload(status));
+                }
+                super.close(status, trailers);
+            }
+        };
+
+        ServerCall.Listener<ReqT> listener;
+        try {
+            listener = next.startCall(limitedCall, headers);
+        } catch (RuntimeException e) {
+            if (done.compareAndSet(false, true)) {
+                limit.release();
+            }
+            throw e;
+        }
+
+        return new SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onCancel() {
+                // close 전에 취소됨 = client deadline / gateway timeout. 응답을 기다리다 포기한 것이므로 과부하로 취급
+                if (done.compareAndSet(false, true)) {
+                    limit.onComplete(System.nanoTime() - startNanos, true);
+                }
+                super.onCancel();
+            }
+        };
+    }
+
+    private boolean criticalUnderPressure() {
+        for (AdaptiveLimit limit : criticalLimits) {
+            if (limit.utilization() >= criticalHeadroom) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <ReqT, RespT> ServerCall.Listener<ReqT> reject(ServerCall<ReqT, RespT> serverCall,
+                                                           String fullMethodName, String reason) {
+        metrics.incrementShed(fullMethodName, reason);
+        Metadata trailers = new Metadata();
+        trailers.put(RETRY_PUSHBACK, retryPushbackMs);
+        serverCall.close(Status.RESOURCE_EXHAUSTED.withDescription("Concurrency limit exceeded"), trailers);
+        return new ServerCall.Listener<>() {
+        };
+    }
+
+    private AdaptiveLimit newLimit(String fullMethodName, boolean critical) {
+        AdaptiveLimit limit = new AdaptiveLimit(initialLimit, minLimit, maxLimit, probeInterval);
+        if (critical) {
+            criticalLimits.add(limit);
+        }
+        metrics.bindConcurrencyLimit(fullMethodName, limit::limit, limit::inflight);
+        return limit;
+    }
+
+    private static boolean isOverload(Status status) {
+        return switch (status.getCode()) {
+            case DEADLINE_EXCEEDED, RESOURCE_EXHAUSTED, UNAVAILABLE -> true;
+            default -> false;
+        };
+    }
+}
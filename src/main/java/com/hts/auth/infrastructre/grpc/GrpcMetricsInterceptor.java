@@ -7,16 +7,14 @@ import io.grpc.*;
 import io.quarkus.grpc.GlobalInterceptor;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import org.jboss.logging.Logger;
 
 @GlobalInterceptor
 @ApplicationScoped
 public class GrpcMetricsInterceptor implements ServerInterceptor {
 
-    private static final Logger log = Logger.getLogger(GrpcMetricsInterceptor.class);
-
     @Inject GrpcMetrics grpcMetrics;
     @Inject EndToEndMetrics endToEndMetrics;
+    @Inject AccessLogWriter accessLog;
 
     @Override
     public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
@@ -40,13 +38,8 @@ public class GrpcMetricsInterceptor implements ServerInterceptor {
                         String result = status.isOk() ? "SUCCESS" : "FAILURE";
                         endToEndMetrics.record(fullMethodName, result, durationNanos);
 
-                        // Structured log
-                        log.infof(
-                                "{\"msg\":\"grpc_request\",\"method\":\"%s\",\"code\":\"%s\",\"latency_ms\":%.3f}",
-                                fullMethodName,
-                                status.getCode().name(),
-                                durationNanos / 1_000_000.0
-                        );
+                        // Structured log (샘플링 후 백그라운드 스레드에서 직렬화)
+                        accessLog.record(fullMethodName, status.getCode(), durationNanos);
 
                         super.close(status, trailers);
                     }
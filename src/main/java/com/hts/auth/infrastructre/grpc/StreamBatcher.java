@@ -0,0 +1,214 @@
+package com.hts.auth.infrastructre.grpc;
+
+import io.smallrye.mutiny.Multi;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Demand-aware micro-batching for streams.
+ * Unlike group().intoLists().of(size, duration), which requests unbounded upstream and fails when a
+ * timed batch meets no downstream demand, this keeps at most maxBuffered items requested-or-buffered
+ * and only emits a batch when downstream has asked for one. A batch is emitted when batchSize items are
+ * buffered, when the current window (started by the first item after the previous batch) has elapsed,
+ * or when upstream completes.
+ * When downstream stops requesting, buffered items stay put and upstream stops receiving demand,
+ * so flow control reaches the client instead of failing the stream.
+ * All state changes run in a serialized drain loop; the window timer only marks expiry and re-drains.
+ */
+public final class StreamBatcher {
+
+    private StreamBatcher() {
+    }
+
+    public static <T> Multi<List<T>> batch(Multi<T> upstream, int batchSize, Duration window,
+                                           int maxBuffered, ScheduledExecutorService timer) {
+        if (batchSize < 1 || maxBuffered < batchSize) {
+            throw new IllegalArgumentException(
+                    "Require 1 <= batchSize <= maxBuffered: " + batchSize + ", " + maxBuffered);
+        }
+        return Multi.createFrom().publisher(downstream -> {
+            BatchSubscription<T> subscription =
+                    new BatchSubscription<>(downstream, batchSize, window.toNanos(), maxBuffered, timer);
+            downstream.onSubscribe(subscription);
+            upstream.subscribe().withSubscriber(subscription);
+        });
+    }
+
+    private static final class BatchSubscription<T> implements Flow.Subscriber<T>, Flow.Subscription {
+
+        private final Flow.Subscriber<? super List<T>> downstream;
+        private final int batchSize;
+        private final long windowNanos;
+        private final int maxBuffered;
+        private final ScheduledExecutorService timer;
+
+        private final Queue<T> buffer = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger buffered = new AtomicInteger();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private volatile Flow.Subscription upstream;
+        private volatile boolean done;
+        private volatile Throwable error;
+        private volatile boolean cancelled;
+
+        // window: drain 이 windowGen 을 올리며 시작, timer 는 expiredGen 만 기록 → 지난 window 의 timer 는 무시됨
+        private volatile long expiredGen = -1;
+        private long windowGen;
+        private ScheduledFuture<?> windowTimer;
+
+        BatchSubscription(Flow.Subscriber<? super List<T>> downstream, int batchSize, long windowNanos,
+                          int maxBuffered, ScheduledExecutorService timer) {
+            this.downstream = downstream;
+            this.batchSize = batchSize;
+            this.windowNanos = windowNanos;
+            this.maxBuffered = maxBuffered;
+            this.timer = timer;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            upstream = subscription;
+            if (cancelled) {
+                subscription.cancel();
+                return;
+            }
+            // buffer 가 비워질 때마다 비운 만큼만 다시 요청 → 요청 + 보관 중인 item 은 항상 maxBuffered 이하
+            subscription.request(maxBuffered);
+        }
+
+        @Override
+        public void onNext(T item) {
+            buffer.offer(item);
+            buffered.incrementAndGet();
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable failure) {
+            error = failure;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                downstream.onError(new IllegalArgumentException("request must be positive: " + n));
+                return;
+            }
+            requested.getAndAccumulate(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            Flow.Subscription s = upstream;
+            if (s != null) {
+                s.cancel();
+            }
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (true) {
+                    if (cancelled) {
+                        resetWindow();
+                        buffer.clear();
+                        break;
+                    }
+                    Throwable failure = error;
+                    if (failure != null) {
+                        // 실패는 남은 item 을 기다리지 않고 바로 전달
+                        resetWindow();
+                        buffer.clear();
+                        cancelled = true;
+                        downstream.onError(failure);
+                        break;
+                    }
+                    boolean finished = done;
+                    int size = buffered.get();
+                    if (size == 0) {
+                        resetWindow();
+                        if (finished) {
+                            cancelled = true;
+                            downstream.onComplete();
+                        }
+                        break;
+                    }
+                    boolean ready = size >= batchSize || finished || expiredGen == windowGen;
+                    if (!ready) {
+                        startWindow();
+                        break;
+                    }
+                    if (requested.get() == 0) {
+                        // demand 없음: 보관만 하고 upstream 추가 요청도 하지 않음
+                        break;
+                    }
+                    emit(Math.min(size, batchSize));
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit(int count) {
+            List<T> batch = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                batch.add(buffer.poll());
+            }
+            buffered.addAndGet(-count);
+            if (requested.get() != Long.MAX_VALUE) {
+                requested.decrementAndGet();
+            }
+            // 남은 item 은 새 window 로 시작 (만료된 window 가 남아 있으면 이후 drain 마다 1건씩 내보내게 됨)
+            resetWindow();
+            downstream.onNext(batch);
+            upstream.request(count);
+        }
+
+        private void startWindow() {
+            if (windowTimer != null) {
+                return;
+            }
+            long gen = windowGen;
+            windowTimer = timer.schedule(() -> {
+                expiredGen = gen;
+                drain();
+            }, windowNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * batch 를 내보냈거나 buffer 가 비었을 때 호출: 남은 (또는 다음) item 부터 새 window
+         */
+        private void resetWindow() {
+            if (windowTimer != null) {
+                windowTimer.cancel(false);
+                windowTimer = null;
+            }
+            windowGen++;
+        }
+    }
+}
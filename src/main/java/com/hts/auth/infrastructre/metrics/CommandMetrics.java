@@ -11,29 +11,26 @@ import java.util.concurrent.TimeUnit;
 @ApplicationScoped
 public class CommandMetrics {
 
-    private final MeterRegistry registry;
+    private final MeterCache<Counter> counters;
+    private final MeterCache<Timer> timers;
 
     @Inject
     public CommandMetrics(MeterRegistry registry) {
-        this.registry = registry;
-    }
-
-    public void record(String op, String result, long durationNanos) {
-
-        Counter counter = Counter.builder("auth_command_total")
+        this.counters = new MeterCache<>((op, result) -> Counter.builder("auth_command_total")
                 .description("Total command executions")
                 .tag("op", op)
                 .tag("result", result)
-                .register(registry);
-        counter.increment();
-
-        Timer timer = Timer.builder("auth_command_latency_seconds")
+                .register(registry));
+        this.timers = new MeterCache<>((op, result) -> Timer.builder("auth_command_latency_seconds")
                 .description("Command execution latency")
                 .tag("op", op)
                 .tag("result", result)
                 .publishPercentileHistogram()
-                .register(registry);
+                .register(registry));
+    }
 
-        timer.record(durationNanos, TimeUnit.NANOSECONDS);
+    public void record(String op, String result, long durationNanos) {
+        counters.get(op, result).increment();
+        timers.get(op, result).record(durationNanos, TimeUnit.NANOSECONDS);
     }
 }
@@ -11,65 +11,69 @@ import java.util.concurrent.TimeUnit;
 @ApplicationScoped
 public class DbMetrics {
 
-    private final MeterRegistry registry;
+    private final MeterCache<Counter> operations;
+    private final MeterCache<Timer> durations;
+    private final MeterCache<Counter> failures;
+    private final Timer readDuration;
+    private final Timer writeDuration;
+    private final Timer successDuration;
+    private final Timer failureDuration;
 
     @Inject
     public DbMetrics(MeterRegistry registry) {
-        this.registry = registry;
-    }
-
-    // 통합 메서드 (권장)
-    public void record(String operation, String result, long durationNanos) {
-        Counter.builder("auth_db_operations_total")
+        this.operations = new MeterCache<>((operation, result) -> Counter.builder("auth_db_operations_total")
                 .description("Total DB operations")
                 .tag("operation", operation)
                 .tag("result", result)
-                .register(registry)
-                .increment();
-
-        Timer.builder("auth_db_duration_seconds")
+                .register(registry));
+        this.durations = new MeterCache<>((operation, result) -> Timer.builder("auth_db_duration_seconds")
                 .description("DB operation duration")
                 .tag("operation", operation)
                 .tag("result", result)
                 .publishPercentileHistogram()
-                .register(registry)
-                .record(durationNanos, TimeUnit.NANOSECONDS);
+                .register(registry));
+        this.failures = new MeterCache<>((operation, unused) -> Counter.builder("auth_db_failures_total")
+                .description("Total number of failed DB operations")
+                .tag("operation", operation)
+                .register(registry));
+        this.readDuration = Timer.builder("auth_db_read_duration_seconds")
+                .description("Duration of DB read operations")
+                .register(registry);
+        this.writeDuration = Timer.builder("auth_db_write_duration_seconds")
+                .description("Duration of DB write operations")
+                .register(registry);
+        this.successDuration = Timer.builder("auth_db_success_duration_seconds")
+                .description("Duration of successful DB operations")
+                .register(registry);
+        this.failureDuration = Timer.builder("auth_db_failure_duration_seconds")
+                .description("Duration of failed DB operations")
+                .register(registry);
+    }
+
+    // 통합 메서드 (권장)
+    public void record(String operation, String result, long durationNanos) {
+        operations.get(operation, result).increment();
+        durations.get(operation, result).record(durationNanos, TimeUnit.NANOSECONDS);
     }
 
     // 레거시 호환 메서드들
     public void recordRead(long durationNanos) {
-        Timer.builder("auth_db_read_duration_seconds")
-                .description("Duration of DB read operations")
-                .register(registry)
-                .record(durationNanos, TimeUnit.NANOSECONDS);
+        readDuration.record(durationNanos, TimeUnit.NANOSECONDS);
     }
 
     public void recordWrite(long durationNanos) {
-        Timer.builder("auth_db_write_duration_seconds")
-                .description("Duration of DB write operations")
-                .register(registry)
-                .record(durationNanos, TimeUnit.NANOSECONDS);
+        writeDuration.record(durationNanos, TimeUnit.NANOSECONDS);
     }
 
     public void recordSuccess(long durationNanos) {
-        Timer.builder("auth_db_success_duration_seconds")
-                .description("Duration of successful DB operations")
-                .register(registry)
-                .record(durationNanos, TimeUnit.NANOSECONDS);
+        successDuration.record(durationNanos, TimeUnit.NANOSECONDS);
     }
 
     public void recordFailure(long durationNanos) {
-        Timer.builder("auth_db_failure_duration_seconds")
-                .description("Duration of failed DB operations")
-                .register(registry)
-                .record(durationNanos, TimeUnit.NANOSECONDS);
+        failureDuration.record(durationNanos, TimeUnit.NANOSECONDS);
     }
 
     public void incrementFailure(String operation) {
-        Counter.builder("auth_db_failures_total")
-                .description("Total number of failed DB operations")
-                .tag("operation", operation)
-                .register(registry)
-                .increment();
+        failures.get(operation).increment();
     }
 }
@@ -10,21 +10,19 @@ import java.util.concurrent.TimeUnit;
 @ApplicationScoped
 public class EndToEndMetrics {
 
-    private final MeterRegistry registry;
+    private final MeterCache<Timer> timers;
 
     @Inject
     public EndToEndMetrics(MeterRegistry registry) {
-        this.registry = registry;
-    }
-
-    public void record(String method, String result, long durationNanos) {
-        Timer timer = Timer.builder("auth_request_latency_seconds")
+        this.timers = new MeterCache<>((method, result) -> Timer.builder("auth_request_latency_seconds")
                 .description("End-to-end latency for auth gRPC requests")
                 .tag("method", method)
                 .tag("result", result) // SUCCESS / DUPLICATE / FAILURE 등
                 .publishPercentileHistogram() // Prometheus histogram으로 export
-                .register(registry);
+                .register(registry));
+    }
 
-        timer.record(durationNanos, TimeUnit.NANOSECONDS);
+    public void record(String method, String result, long durationNanos) {
+        timers.get(method, result).record(durationNanos, TimeUnit.NANOSECONDS);
     }
 }
@@ -2,42 +2,83 @@ package com.hts.auth.infrastructre.metrics;
 
 import io.grpc.Status;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
 import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
 
 @ApplicationScoped
 public class GrpcMetrics {
 
     private final MeterRegistry registry;
+    private final MeterCache<Counter> requests;
+    private final MeterCache<Timer> latencies;
+    private final MeterCache<Timer> streamMessageLatencies;
+    private final Counter accessLogDropped;
+    private final MeterCache<Counter> shed;
 
     @Inject
     public GrpcMetrics(MeterRegistry registry) {
         this.registry = registry;
-    }
-
-    public void recordRequest(String method, Status status, long durationNanos) {
-        String codeGroup = classifyStatus(status);
-
-        // Counter
-        Counter counter = Counter.builder("auth_grpc_requests_total")
+        this.requests = new MeterCache<>((method, codeGroup) -> Counter.builder("auth_grpc_requests_total")
                 .description("Total number of gRPC requests for auth service")
                 .tag("method", method)
                 .tag("code_group", codeGroup) // OK / CLIENT_ERROR / SERVER_ERROR
-                .register(registry);
-        counter.increment();
-
-        // Latency
-        Timer timer = Timer.builder("auth_grpc_latency_seconds")
+                .register(registry));
+        this.latencies = new MeterCache<>((method, codeGroup) -> Timer.builder("auth_grpc_latency_seconds")
                 .description("gRPC server latency for auth service")
                 .tag("method", method)
                 .tag("code_group", codeGroup)
                 .publishPercentileHistogram()
+                .register(registry));
+        this.streamMessageLatencies = new MeterCache<>((method, unused) -> Timer.builder("auth_grpc_stream_message_latency_seconds")
+                .description("Per-message latency on streaming gRPC calls (receive to reply)")
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(registry));
+        this.accessLogDropped = Counter.builder("auth_grpc_access_log_dropped_total")
+                .description("Access log records dropped because the ring buffer was full")
+                .register(registry);
+        this.shed = new MeterCache<>((method, reason) -> Counter.builder("auth_grpc_shed_total")
+                .description("Calls rejected with RESOURCE_EXHAUSTED by the concurrency limiter")
+                .tag("method", method)
+                .tag("reason", reason) // LIMIT / PRIORITY
+                .register(registry));
+    }
+
+    public void bindConcurrencyLimit(String method, IntSupplier limit, IntSupplier inflight) {
+        Gauge.builder("auth_grpc_concurrency_limit", limit, IntSupplier::getAsInt)
+                .description("Current adaptive concurrency limit")
+                .tag("method", method)
+                .strongReference(true)
+                .register(registry);
+        Gauge.builder("auth_grpc_inflight", inflight, IntSupplier::getAsInt)
+                .description("Calls currently admitted by the concurrency limiter")
+                .tag("method", method)
+                .strongReference(true)
                 .register(registry);
-        timer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void incrementShed(String method, String reason) {
+        shed.get(method, reason).increment();
+    }
+
+    public void recordRequest(String method, Status status, long durationNanos) {
+        String codeGroup = classifyStatus(status);
+        requests.get(method, codeGroup).increment();
+        latencies.get(method, codeGroup).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordStreamMessage(String method, long durationNanos) {
+        streamMessageLatencies.get(method).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void incrementAccessLogDropped() {
+        accessLogDropped.increment();
     }
 
     private String classifyStatus(Status status) {
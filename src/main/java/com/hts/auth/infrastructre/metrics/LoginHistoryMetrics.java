@@ -0,0 +1,59 @@
+package com.hts.auth.infrastructre.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+@ApplicationScoped
+public class LoginHistoryMetrics {
+
+    private final MeterRegistry registry;
+    private final DistributionSummary batchSize;
+    private final Timer flushSuccess;
+    private final Timer flushFailure;
+    private final Counter dropped;
+
+    @Inject
+    public LoginHistoryMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.batchSize = DistributionSummary.builder("auth_login_history_batch_size")
+                .description("Rows per login_history group commit")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.flushSuccess = flushTimer("SUCCESS");
+        this.flushFailure = flushTimer("FAILURE");
+        this.dropped = Counter.builder("auth_login_history_dropped_total")
+                .description("login_history rows dropped because the queue was full")
+                .register(registry);
+    }
+
+    private Timer flushTimer(String result) {
+        return Timer.builder("auth_login_history_flush_seconds")
+                .description("login_history group commit latency")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public void bindQueue(Collection<?> queue) {
+        Gauge.builder("auth_login_history_queue_depth", queue, Collection::size)
+                .description("login_history rows waiting to be flushed")
+                .register(registry);
+    }
+
+    public void recordFlush(int rows, boolean success, long durationNanos) {
+        batchSize.record(rows);
+        (success ? flushSuccess : flushFailure).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void incrementDropped() {
+        dropped.increment();
+    }
+}
@@ -0,0 +1,34 @@
+package com.hts.auth.infrastructre.metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * (tag1, tag2) → meter cache. Meters are built and registered once per tag pair;
+ * the hit path is two map lookups with no builder, tag list or lambda allocation.
+ */
+final class MeterCache<M> {
+
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, M>> meters = new ConcurrentHashMap<>();
+    private final BiFunction<String, String, M> factory;
+
+    MeterCache(BiFunction<String, String, M> factory) {
+        this.factory = factory;
+    }
+
+    M get(String tag1, String tag2) {
+        ConcurrentHashMap<String, M> inner = meters.get(tag1);
+        if (inner == null) {
+            inner = meters.computeIfAbsent(tag1, k -> new ConcurrentHashMap<>());
+        }
+        M meter = inner.get(tag2);
+        if (meter == null) {
+            meter = inner.computeIfAbsent(tag2, k -> factory.apply(tag1, k));
+        }
+        return meter;
+    }
+
+    M get(String tag) {
+        return get(tag, "");
+    }
+}
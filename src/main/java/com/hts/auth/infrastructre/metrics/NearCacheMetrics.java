@@ -0,0 +1,73 @@
+package com.hts.auth.infrastructre.metrics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.concurrent.TimeUnit;
+
+@ApplicationScoped
+public class NearCacheMetrics {
+
+    private final MeterRegistry registry;
+    // cache 태그 = bind() 에 넘긴 이름 (session_near_cache, account_snapshot_cache)
+    private final MeterCache<Counter> invalidations;
+    private final MeterCache<Counter> staleFillsSkipped;
+    private final MeterCache<Timer> invalidationLag;
+    private final Counter lookupLeaders;
+    private final Counter lookupCoalesced;
+
+    @Inject
+    public NearCacheMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.invalidations = new MeterCache<>((cache, unused) ->
+                Counter.builder("auth_near_cache_invalidations_total")
+                        .description("Near-cache invalidations received")
+                        .tag("cache", cache)
+                        .register(registry));
+        this.staleFillsSkipped = new MeterCache<>((cache, unused) ->
+                Counter.builder("auth_near_cache_stale_fills_skipped_total")
+                        .description("Cache fills skipped because the entry was invalidated while loading")
+                        .tag("cache", cache)
+                        .register(registry));
+        this.invalidationLag = new MeterCache<>((cache, unused) ->
+                Timer.builder("auth_near_cache_invalidation_lag_seconds")
+                        .description("Delay between Redis publishing an invalidation and local eviction")
+                        .tag("cache", cache)
+                        .publishPercentileHistogram()
+                        .register(registry));
+        // coalescing ratio = coalesced / (leader + coalesced)
+        this.lookupLeaders = Counter.builder("auth_session_lookup_total")
+                .description("Near-cache misses by whether they issued a Redis lookup or joined one in flight")
+                .tag("result", "leader")
+                .register(registry);
+        this.lookupCoalesced = Counter.builder("auth_session_lookup_total")
+                .description("Near-cache misses by whether they issued a Redis lookup or joined one in flight")
+                .tag("result", "coalesced")
+                .register(registry);
+    }
+
+    // hit/miss/eviction/size 는 Caffeine 통계로 export (cache_gets_total{result=hit|miss} 로 hit ratio 계산)
+    public void bind(Cache<?, ?> cache, String name) {
+        CaffeineCacheMetrics.monitor(registry, cache, name);
+    }
+
+    public void recordInvalidation(String cache, long lagMillis) {
+        invalidations.get(cache).increment();
+        if (lagMillis >= 0) {
+            invalidationLag.get(cache).record(lagMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void recordLookup(boolean coalesced) {
+        (coalesced ? lookupCoalesced : lookupLeaders).increment();
+    }
+
+    public void incrementStaleFillSkipped(String cache) {
+        staleFillsSkipped.get(cache).increment();
+    }
+}
@@ -0,0 +1,60 @@
+package com.hts.auth.infrastructre.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+@ApplicationScoped
+public class OutboxMetrics {
+
+    private final MeterRegistry registry;
+    private final Counter published;
+    private final Counter failures;
+    private final Timer lag;
+    private final DistributionSummary batchSize;
+
+    @Inject
+    public OutboxMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.published = Counter.builder("auth_outbox_published_total")
+                .description("Outbox events acked by Kafka")
+                .register(registry);
+        this.failures = Counter.builder("auth_outbox_relay_failures_total")
+                .description("Relay polls with a failed or unacked publish, or a failed claim / delete")
+                .register(registry);
+        this.lag = Timer.builder("auth_outbox_relay_lag_seconds")
+                .description("Time from the outbox insert (status change commit) to the Kafka ack")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.batchSize = DistributionSummary.builder("auth_outbox_relay_batch_size")
+                .description("Outbox rows claimed per relay poll (polls that claim nothing are not recorded)")
+                .register(registry);
+    }
+
+    public void bindOldestPendingAge(LongSupplier ageMillis) {
+        Gauge.builder("auth_outbox_oldest_pending_seconds", ageMillis, s -> s.getAsLong() / 1000.0)
+                .description("Age of the oldest outbox row seen by the last relay poll")
+                .strongReference(true)
+                .register(registry);
+    }
+
+    public void recordPublished(long lagMillis) {
+        published.increment();
+        lag.record(Math.max(0, lagMillis), TimeUnit.MILLISECONDS);
+    }
+
+    public void recordBatch(int rows) {
+        batchSize.record(rows);
+    }
+
+    public void incrementFailure() {
+        failures.increment();
+    }
+}
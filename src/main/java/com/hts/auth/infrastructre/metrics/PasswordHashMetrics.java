@@ -0,0 +1,56 @@
+package com.hts.auth.infrastructre.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+@ApplicationScoped
+public class PasswordHashMetrics {
+
+    private final MeterRegistry registry;
+    private final MeterCache<Timer> durations;
+    private final MeterCache<Counter> rejected;
+    private final MeterCache<Counter> rehashes;
+
+    @Inject
+    public PasswordHashMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.durations = new MeterCache<>((op, unused) -> Timer.builder("auth_password_hash_duration_seconds")
+                .description("CPU time of password hash / verify on the hashing executor")
+                .tag("op", op)
+                .publishPercentileHistogram()
+                .register(registry));
+        this.rejected = new MeterCache<>((op, unused) -> Counter.builder("auth_password_hash_rejected_total")
+                .description("Hash tasks rejected because the hashing queue was full")
+                .tag("op", op)
+                .register(registry));
+        this.rehashes = new MeterCache<>((result, unused) -> Counter.builder("auth_password_rehash_total")
+                .description("Stored hashes upgraded on login")
+                .tag("result", result)
+                .register(registry));
+    }
+
+    public void bindQueue(Collection<?> queue) {
+        Gauge.builder("auth_password_hash_queue_depth", queue, Collection::size)
+                .description("Hash tasks waiting for a hashing thread")
+                .register(registry);
+    }
+
+    public void record(String op, long durationNanos) {
+        durations.get(op).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void incrementRejected(String op) {
+        rejected.get(op).increment();
+    }
+
+    public void incrementRehash(String result) {
+        rehashes.get(result).increment();
+    }
+}
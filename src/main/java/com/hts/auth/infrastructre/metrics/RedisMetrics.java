@@ -11,55 +11,92 @@ import java.util.concurrent.TimeUnit;
 @ApplicationScoped
 public class RedisMetrics {
 
-    private final MeterRegistry registry;
+    private final Timer getTimer;
+    private final Timer setTimer;
+    private final Counter timeouts;
+    private final Counter scriptErrors;
+    private final Counter clusterRedirects;
+    private final Counter ttlRefreshed;
+    private final Counter ttlRefreshSkipped;
+    private final MeterCache<Counter> failures;
+    private final MeterCache<Timer> scriptTimers;
+    private final MeterCache<Counter> scriptReloads;
 
     @Inject
     public RedisMetrics(MeterRegistry registry) {
-        this.registry = registry;
-    }
-
-    public void recordGet(long durationNanos) {
-        Timer timer = Timer.builder("auth_redis_get_seconds")
+        this.getTimer = Timer.builder("auth_redis_get_seconds")
                 .description("Redis GET latency")
                 .publishPercentileHistogram()
                 .register(registry);
-        timer.record(durationNanos, TimeUnit.NANOSECONDS);
-    }
-
-    public void recordSet(long durationNanos) {
-        Timer timer = Timer.builder("auth_redis_set_seconds")
+        this.setTimer = Timer.builder("auth_redis_set_seconds")
                 .description("Redis SET latency")
                 .publishPercentileHistogram()
                 .register(registry);
-        timer.record(durationNanos, TimeUnit.NANOSECONDS);
+        this.timeouts = Counter.builder("auth_redis_timeout_total")
+                .description("Redis timeouts")
+                .register(registry);
+        this.scriptErrors = Counter.builder("auth_redis_script_error_total")
+                .description("Redis Lua script errors")
+                .register(registry);
+        this.clusterRedirects = Counter.builder("auth_redis_cluster_redirect_total")
+                .description("Redis MOVED/ASK redirects")
+                .register(registry);
+        this.ttlRefreshed = Counter.builder("auth_session_ttl_refresh_total")
+                .description("Session validations by whether the sliding TTL was refreshed (EXPIRE written)")
+                .tag("result", "refreshed")
+                .register(registry);
+        this.ttlRefreshSkipped = Counter.builder("auth_session_ttl_refresh_total")
+                .description("Session validations by whether the sliding TTL was refreshed (EXPIRE written)")
+                .tag("result", "skipped")
+                .register(registry);
+        this.failures = new MeterCache<>((op, unused) -> Counter.builder("auth_redis_failure_total")
+                .description("Redis operation failures")
+                .tag("op", op)
+                .register(registry));
+        this.scriptTimers = new MeterCache<>((script, unused) -> Timer.builder("auth_redis_script_seconds")
+                .description("Redis Lua script (EVALSHA) latency")
+                .tag("script", script)
+                .publishPercentileHistogram()
+                .register(registry));
+        this.scriptReloads = new MeterCache<>((script, unused) -> Counter.builder("auth_redis_script_reload_total")
+                .description("Lua scripts reloaded after NOSCRIPT")
+                .tag("script", script)
+                .register(registry));
+    }
+
+    public void recordGet(long durationNanos) {
+        getTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSet(long durationNanos) {
+        setTimer.record(durationNanos, TimeUnit.NANOSECONDS);
     }
 
     public void incrementFailure(String op) {
-        Counter c = Counter.builder("auth_redis_failure_total")
-                .description("Redis operation failures")
-                .tag("op", op)
-                .register(registry);
-        c.increment();
+        failures.get(op).increment();
     }
 
     public void incrementTimeout() {
-        Counter c = Counter.builder("auth_redis_timeout_total")
-                .description("Redis timeouts")
-                .register(registry);
-        c.increment();
+        timeouts.increment();
     }
 
     public void incrementScriptError() {
-        Counter c = Counter.builder("auth_redis_script_error_total")
-                .description("Redis Lua script errors")
-                .register(registry);
-        c.increment();
+        scriptErrors.increment();
+    }
+
+    public void recordScript(String script, long durationNanos) {
+        scriptTimers.get(script).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void incrementScriptReload(String script) {
+        scriptReloads.get(script).increment();
+    }
+
+    public void recordTtlRefresh(boolean refreshed) {
+        (refreshed ? ttlRefreshed : ttlRefreshSkipped).increment();
     }
 
     public void incrementClusterRedirect() {
-        Counter c = Counter.builder("auth_redis_cluster_redirect_total")
-                .description("Redis MOVED/ASK redirects")
-                .register(registry);
-        c.increment();
+        clusterRedirects.increment();
     }
 }
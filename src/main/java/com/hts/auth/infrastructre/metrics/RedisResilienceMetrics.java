@@ -0,0 +1,75 @@
+package com.hts.auth.infrastructre.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+@ApplicationScoped
+public class RedisResilienceMetrics {
+
+    private final MeterRegistry registry;
+    private final Counter shortCircuited;
+    private final MeterCache<Counter> transitions;
+    private final MeterCache<Counter> hedges;
+    private final MeterCache<Counter> replicaReads;
+
+    @Inject
+    public RedisResilienceMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.shortCircuited = Counter.builder("auth_redis_short_circuited_total")
+                .description("Primary Redis calls refused because the circuit breaker was open")
+                .register(registry);
+        this.transitions = new MeterCache<>((to, unused) -> Counter.builder("auth_redis_circuit_transition_total")
+                .description("Circuit breaker state transitions")
+                .tag("to", to)
+                .register(registry));
+        this.hedges = new MeterCache<>((target, result) -> Counter.builder("auth_redis_hedge_total")
+                .description("Hedged reads fired after the p95 delay, and how many answered first")
+                .tag("target", target)
+                .tag("result", result)
+                .register(registry));
+        this.replicaReads = new MeterCache<>((reason, unused) -> Counter.builder("auth_redis_replica_read_total")
+                .description("Reads served from the replica instead of the primary")
+                .tag("reason", reason)
+                .register(registry));
+    }
+
+    /**
+     * @param state 0 = closed, 1 = half-open, 2 = open
+     */
+    public void bind(LongSupplier state, DoubleSupplier failureRate, LongSupplier hedgeDelayNanos) {
+        Gauge.builder("auth_redis_circuit_state", state, LongSupplier::getAsLong)
+                .description("Primary Redis circuit breaker state (0 closed, 1 half-open, 2 open)")
+                .strongReference(true)
+                .register(registry);
+        Gauge.builder("auth_redis_circuit_failure_rate", failureRate, DoubleSupplier::getAsDouble)
+                .description("Failure rate over the circuit breaker window")
+                .strongReference(true)
+                .register(registry);
+        Gauge.builder("auth_redis_hedge_delay_seconds", hedgeDelayNanos, s -> s.getAsLong() / 1_000_000_000.0)
+                .description("Current hedge delay (primary read p95, clamped)")
+                .strongReference(true)
+                .register(registry);
+    }
+
+    public void incrementShortCircuited() {
+        shortCircuited.increment();
+    }
+
+    public void recordTransition(String to) {
+        transitions.get(to).increment();
+    }
+
+    public void recordHedge(String target, boolean won) {
+        hedges.get(target, won ? "won" : "fired").increment();
+    }
+
+    public void incrementReplicaRead(String reason) {
+        replicaReads.get(reason).increment();
+    }
+}
@@ -0,0 +1,43 @@
+package com.hts.auth.infrastructre.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.Map;
+
+@ApplicationScoped
+public class SessionTokenMetrics {
+
+    private final MeterRegistry registry;
+    private final MeterCache<Counter> verifications;
+    private final Counter syncFailures;
+
+    @Inject
+    public SessionTokenMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.verifications = new MeterCache<>((result, unused) -> Counter.builder("auth_session_token_verify_total")
+                .description("Local session token verifications")
+                .tag("result", result) // VALID / EXPIRED / REVOKED / INVALID
+                .register(registry));
+        this.syncFailures = Counter.builder("auth_session_token_revocation_sync_failure_total")
+                .description("Revocation set sync failures")
+                .register(registry);
+    }
+
+    public void recordVerify(String result) {
+        verifications.get(result).increment();
+    }
+
+    public void bindRevocationSet(Map<?, ?> watermarks) {
+        Gauge.builder("auth_session_token_revocations", watermarks, Map::size)
+                .description("Accounts in the local revoked-before watermark map")
+                .register(registry);
+    }
+
+    public void incrementSyncFailure() {
+        syncFailures.increment();
+    }
+}
@@ -0,0 +1,69 @@
+package com.hts.auth.infrastructre.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+
+@ApplicationScoped
+public class VirtualThreadMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer permitWait;
+    private final Counter permitTimeouts;
+    private final Counter pinned;
+    private final Timer pinnedDuration;
+
+    @Inject
+    public VirtualThreadMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.permitWait = Timer.builder("auth_vt_permit_wait_seconds")
+                .description("Time a virtual thread waited for a DB concurrency permit")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.permitTimeouts = Counter.builder("auth_vt_permit_timeouts_total")
+                .description("Blocking tasks rejected because no DB concurrency permit became free in time")
+                .register(registry);
+        this.pinned = Counter.builder("auth_vt_pinned_total")
+                .description("Virtual threads pinned to their carrier while blocking (JFR jdk.VirtualThreadPinned)")
+                .register(registry);
+        this.pinnedDuration = Timer.builder("auth_vt_pinned_seconds")
+                .description("Duration of virtual thread pinning events")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public void bind(IntSupplier inFlight, IntSupplier parallelism, DoubleSupplier carrierUtilization) {
+        Gauge.builder("auth_vt_in_flight", inFlight, s -> s.getAsInt())
+                .description("Blocking tasks currently running on virtual threads")
+                .strongReference(true)
+                .register(registry);
+        Gauge.builder("auth_vt_carrier_parallelism", parallelism, s -> s.getAsInt())
+                .description("Carrier threads available to the virtual thread scheduler")
+                .strongReference(true)
+                .register(registry);
+        Gauge.builder("auth_vt_carrier_utilization", carrierUtilization, DoubleSupplier::getAsDouble)
+                .description("Carrier CPU time over the last sample interval divided by parallelism (0..1)")
+                .strongReference(true)
+                .register(registry);
+    }
+
+    public void recordPermitWait(long durationNanos) {
+        permitWait.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void incrementPermitTimeout() {
+        permitTimeouts.increment();
+    }
+
+    public void recordPinned(long durationNanos) {
+        pinned.increment();
+        pinnedDuration.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+}
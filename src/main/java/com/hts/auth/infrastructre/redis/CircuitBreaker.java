@@ -0,0 +1,166 @@
+package com.hts.auth.infrastructre.redis;
+
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker.
+ * CLOSED: outcomes go into a ring of the last windowSize calls; once minimumCalls are recorded and the
+ * failure rate reaches the threshold the breaker OPENs. OPEN: calls are refused until openDuration has
+ * passed, then HALF_OPEN admits halfOpenProbes calls; all succeed → CLOSED, any failure → OPEN again.
+ * The OPEN → HALF_OPEN step is taken on any read of the state, not only on tryAcquire, so observers such
+ * as the readiness check do not keep reporting OPEN while no traffic arrives.
+ * Every permit carries the generation it was issued in; the generation changes on each transition and
+ * outcomes reported with an older permit are ignored (a slow CLOSED-era call cannot count as a probe).
+ * The clock is injected so the state machine can be driven without real time.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    /** tryAcquire 가 호출을 거부했을 때의 permit */
+    public static final long NO_PERMIT = -1;
+
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenProbes;
+    private final LongSupplier clock;
+    private final Consumer<State> onTransition;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private int next;
+    private int recorded;
+    private int failures;
+    private long openedAt;
+    private int probesIssued;
+    private int probesSucceeded;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                          long openDurationNanos, int halfOpenProbes,
+                          LongSupplier clock, Consumer<State> onTransition) {
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDurationNanos;
+        this.halfOpenProbes = halfOpenProbes;
+        this.clock = clock;
+        this.onTransition = onTransition;
+    }
+
+    /**
+     * @return 호출을 진행할 permit, 거부면 NO_PERMIT. permit 을 받았으면 이후 반드시
+     *         onSuccess / onFailure / release 중 하나에 그 permit 을 넘김
+     */
+    public synchronized long tryAcquire() {
+        advance();
+        switch (state) {
+            case CLOSED:
+                return generation;
+            case OPEN:
+                return NO_PERMIT;
+            default:
+                if (probesIssued >= halfOpenProbes) {
+                    return NO_PERMIT;
+                }
+                probesIssued++;
+                return generation;
+        }
+    }
+
+    public synchronized void onSuccess(long permit) {
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (++probesSucceeded >= halfOpenProbes) {
+                resetWindow();
+                transition(State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure(long permit) {
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failureRate() >= failureRateThreshold) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * 결과 없이 끝난 호출 (hedge 에 져서 cancel 된 경우 등): HALF_OPEN 이면 probe 슬롯만 반환
+     */
+    public synchronized void release(long permit) {
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN && probesIssued > probesSucceeded) {
+            probesIssued--;
+        }
+    }
+
+    public synchronized State state() {
+        advance();
+        return state;
+    }
+
+    public synchronized double failureRate() {
+        return recorded == 0 ? 0.0 : (double) failures / recorded;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    /**
+     * OPEN 이 openDuration 을 넘겼으면 HALF_OPEN 으로 (probe 는 아직 하나도 발급되지 않은 상태)
+     */
+    private void advance() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openDurationNanos) {
+            probesIssued = 0;
+            probesSucceeded = 0;
+            transition(State.HALF_OPEN);
+        }
+    }
+
+    private void open() {
+        openedAt = clock.getAsLong();
+        transition(State.OPEN);
+    }
+
+    private void resetWindow() {
+        next = 0;
+        recorded = 0;
+        failures = 0;
+    }
+
+    private void transition(State to) {
+        if (state != to) {
+            state = to;
+            generation++;
+            onTransition.accept(to);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.hts.auth.infrastructre.redis;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Recent-latency window for hedging. Keeps the last size samples in a ring and recomputes the
+ * percentile every recomputeEvery samples, so the read path is one volatile load.
+ */
+public class LatencyWindow {
+
+    private final AtomicLongArray samples;
+    private final AtomicLong count = new AtomicLong();
+    private final double percentile;
+    private final int recomputeEvery;
+
+    private volatile long percentileNanos;
+
+    public LatencyWindow(int size, double percentile, int recomputeEvery) {
+        this.samples = new AtomicLongArray(size);
+        this.percentile = percentile;
+        this.recomputeEvery = recomputeEvery;
+    }
+
+    public void record(long nanos) {
+        long n = count.getAndIncrement();
+        samples.set((int) (n % samples.length()), nanos);
+        if ((n + 1) % recomputeEvery == 0) {
+            recompute(Math.min(n + 1, samples.length()));
+        }
+    }
+
+    /**
+     * @return 최근 percentile 지연, 샘플이 recomputeEvery 개 모이기 전에는 0
+     */
+    public long percentileNanos() {
+        return percentileNanos;
+    }
+
+    private void recompute(long filled) {
+        long[] copy = new long[(int) filled];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = samples.get(i);
+        }
+        Arrays.sort(copy);
+        percentileNanos = copy[(int) Math.min(copy.length - 1, Math.ceil(percentile * copy.length) - 1)];
+    }
+}
@@ -0,0 +1,26 @@
+package com.hts.auth.infrastructre.redis;
+
+public enum LuaScript {
+    SAVE_SESSION("save_session", "lua/save_session.lua"),
+    GET_SESSION("get_session", "lua/get_session.lua"),
+    GET_SESSION_RO("get_session_ro", "lua/get_session_ro.lua"),
+    DELETE_SESSION("delete_session", "lua/delete_session.lua"),
+    DELETE_ALL_SESSIONS("delete_all_sessions", "lua/delete_all_sessions.lua"),
+    LOGIN_FAILURE("login_failure", "lua/login_failure.lua");
+
+    private final String metricName;
+    private final String path;
+
+    LuaScript(String metricName, String path) {
+        this.metricName = metricName;
+        this.path = path;
+    }
+
+    public String metricName() {
+        return metricName;
+    }
+
+    public String path() {
+        return path;
+    }
+}
@@ -0,0 +1,230 @@
+package com.hts.auth.infrastructre.redis;
+
+import com.hts.auth.infrastructre.metrics.RedisMetrics;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.redis.client.Request;
+import io.vertx.mutiny.redis.client.Response;
+import io.vertx.redis.client.Command;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Lua script registry: SCRIPT LOAD at startup, EVALSHA by digest on every call.
+ * On NOSCRIPT (fresh replica after failover, SCRIPT FLUSH) the script is reloaded and the call retried once.
+ * In cluster mode (quarkus.redis.client-type=cluster) SCRIPT LOAD cannot target the slot owner, so NOSCRIPT
+ * falls back to EVAL with the full source (routed by KEYS[1]; Redis caches it on that node), and batches are
+ * sent as individual calls because a pipeline may span slots.
+ */
+@ApplicationScoped
+public class LuaScriptRegistry {
+
+    private static final Logger LOG = Logger.getLogger(LuaScriptRegistry.class);
+
+    @Inject ReactiveRedisDataSource redis;
+    @Inject ResilientRedisClient resilientRedis;
+    @Inject RedisMetrics metrics;
+
+    @ConfigProperty(name = "quarkus.redis.client-type", defaultValue = "standalone")
+    String clientType;
+
+    private boolean cluster;
+    private final Map<LuaScript, String> sources = new EnumMap<>(LuaScript.class);
+    private final Map<LuaScript, String> digests = new EnumMap<>(LuaScript.class);
+
+    @PostConstruct
+    void init() {
+        for (LuaScript script : LuaScript.values()) {
+            String source = loadLua(script.path());
+            sources.put(script, source);
+            // SCRIPT LOAD 과 동일한 SHA1 을 로컬에서 계산 → 로드 완료 전에도 EVALSHA 가능 (NOSCRIPT 시 재로드)
+            digests.put(script, sha1(source));
+        }
+        cluster = "cluster".equalsIgnoreCase(clientType);
+    }
+
+    void onStart(@Observes StartupEvent ev) {
+        Multi.createFrom().iterable(sources.keySet())
+                .onItem().transformToUniAndMerge(this::load)
+                .collect().asList()
+                .subscribe().with(
+                        loaded -> LOG.infof("Loaded %d Lua scripts into Redis", loaded.size()),
+                        e -> LOG.warnf(e, "Lua script preload failed, scripts will be loaded on first NOSCRIPT"));
+    }
+
+    public Uni<Response> eval(LuaScript script, int numKeys, String... keysAndArgs) {
+        return eval(script, false, numKeys, keysAndArgs);
+    }
+
+    public Uni<Response> eval(LuaScript script, boolean resilient, int numKeys, String... keysAndArgs) {
+        long start = System.nanoTime();
+        String[] args = new String[keysAndArgs.length + 2];
+        args[0] = digests.get(script);
+        args[1] = String.valueOf(numKeys);
+        System.arraycopy(keysAndArgs, 0, args, 2, keysAndArgs.length);
+
+        return evalsha(resilient, args)
+                .onFailure(LuaScriptRegistry::isClusterRedirect).recoverWithUni(e -> {
+                    // slot 이동 중 MOVED/ASK: client 가 slot map 을 갱신하므로 한 번만 재시도
+                    metrics.incrementClusterRedirect();
+                    LOG.debugf("%s for %s, retrying", e.getMessage(), script.metricName());
+                    return evalsha(resilient, args);
+                })
+                .onFailure(LuaScriptRegistry::isNoScript).recoverWithUni(e -> {
+                    metrics.incrementScriptReload(script.metricName());
+                    if (cluster) {
+                        LOG.warnf("NOSCRIPT for %s, falling back to EVAL", script.metricName());
+                        String[] evalArgs = args.clone();
+                        evalArgs[0] = sources.get(script);
+                        return redis.execute("EVAL", evalArgs);
+                    }
+                    LOG.warnf("NOSCRIPT for %s, reloading", script.metricName());
+                    return load(script).flatMap(sha -> evalsha(resilient, args));
+                })
+                .onItem().invoke(() -> metrics.recordScript(script.metricName(), System.nanoTime() - start))
+                .onFailure().invoke(e -> {
+                    metrics.recordScript(script.metricName(), System.nanoTime() - start);
+                    metrics.incrementScriptError();
+                });
+    }
+
+    /**
+     * 읽기 조회: primary 는 script 로 (breaker + hedge, 재시도 없음), replica 는 readOnlyScript 를 EVALSHA_RO 로.
+     * 두 script 는 같은 KEYS/ARGV 와 같은 응답 형식이어야 함
+     */
+    public Uni<Response> evalRead(LuaScript script, LuaScript readOnlyScript, int numKeys, String... keysAndArgs) {
+        return resilientRedis.read(
+                () -> eval(script, false, numKeys, keysAndArgs),
+                () -> evalOnReplica(readOnlyScript, numKeys, keysAndArgs));
+    }
+
+    private Uni<Response> evalOnReplica(LuaScript script, int numKeys, String... keysAndArgs) {
+        long start = System.nanoTime();
+        String[] args = new String[keysAndArgs.length + 2];
+        args[0] = digests.get(script);
+        args[1] = String.valueOf(numKeys);
+        System.arraycopy(keysAndArgs, 0, args, 2, keysAndArgs.length);
+
+        // SCRIPT LOAD 은 replica 로 전파되지 않으므로 NOSCRIPT 면 EVAL_RO (replica 의 script cache 에 남음)
+        return resilientRedis.executeOnReplica("EVALSHA_RO", args)
+                .onFailure(LuaScriptRegistry::isNoScript).recoverWithUni(e -> {
+                    metrics.incrementScriptReload(script.metricName());
+                    String[] evalArgs = args.clone();
+                    evalArgs[0] = sources.get(script);
+                    return resilientRedis.executeOnReplica("EVAL_RO", evalArgs);
+                })
+                .onItem().invoke(() -> metrics.recordScript(script.metricName(), System.nanoTime() - start))
+                .onFailure().invoke(e -> {
+                    metrics.recordScript(script.metricName(), System.nanoTime() - start);
+                    metrics.incrementScriptError();
+                });
+    }
+
+    /**
+     * Pipelined EVALSHA: calls 의 각 원소(keys + args)를 하나의 배치로 전송, 응답은 같은 순서.
+     * cluster 모드에서는 slot 이 섞일 수 있으므로 건별 eval 을 동시에 보내고 순서대로 모음
+     */
+    public Uni<List<Response>> evalBatch(LuaScript script, int numKeys, List<String[]> calls) {
+        if (calls.isEmpty()) {
+            return Uni.createFrom().item(List.of());
+        }
+        if (cluster) {
+            List<Uni<Response>> unis = new ArrayList<>(calls.size());
+            for (String[] keysAndArgs : calls) {
+                unis.add(eval(script, numKeys, keysAndArgs));
+            }
+            return Uni.join().all(unis).andFailFast();
+        }
+        long start = System.nanoTime();
+        return batch(script, numKeys, calls)
+                .onFailure(LuaScriptRegistry::isNoScript).recoverWithUni(e -> {
+                    metrics.incrementScriptReload(script.metricName());
+                    LOG.warnf("NOSCRIPT for %s batch, reloading", script.metricName());
+                    return load(script).flatMap(sha -> batch(script, numKeys, calls));
+                })
+                .onItem().invoke(() -> metrics.recordScript(script.metricName() + "_batch", System.nanoTime() - start))
+                .onFailure().invoke(e -> {
+                    metrics.recordScript(script.metricName() + "_batch", System.nanoTime() - start);
+                    metrics.incrementScriptError();
+                });
+    }
+
+    private Uni<List<Response>> batch(LuaScript script, int numKeys, List<String[]> calls) {
+        String sha = digests.get(script);
+        String keyCount = String.valueOf(numKeys);
+        List<Request> requests = new ArrayList<>(calls.size());
+        for (String[] keysAndArgs : calls) {
+            Request request = Request.cmd(Command.EVALSHA).arg(sha).arg(keyCount);
+            for (String arg : keysAndArgs) {
+                request.arg(arg);
+            }
+            requests.add(request);
+        }
+        return redis.getRedis().batch(requests);
+    }
+
+    private Uni<Response> evalsha(boolean resilient, String[] args) {
+        return resilient
+                ? resilientRedis.executeWithRetry("EVALSHA", args)
+                : redis.execute("EVALSHA", args);
+    }
+
+    private Uni<String> load(LuaScript script) {
+        return redis.execute("SCRIPT", "LOAD", sources.get(script))
+                .map(Response::toString)
+                .invoke(sha -> {
+                    if (!sha.equals(digests.get(script))) {
+                        LOG.warnf("Unexpected digest for %s: expected=%s, actual=%s",
+                                script.metricName(), digests.get(script), sha);
+                    }
+                });
+    }
+
+    static boolean isClusterRedirect(Throwable e) {
+        String message = e.getMessage();
+        return message != null && (message.startsWith("MOVED") || message.startsWith("ASK"));
+    }
+
+    static boolean isNoScript(Throwable e) {
+        return e.getMessage() != null && e.getMessage().startsWith("NOSCRIPT");
+    }
+
+    private String loadLua(String path) {
+        try (var is = getClass().getClassLoader().getResourceAsStream(path)) {
+            if (is == null) {
+                throw new IllegalStateException("Lua script not found: " + path);
+            }
+            return new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))
+                    .lines()
+                    .collect(Collectors.joining("\n"));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to load Lua script: " + path, e);
+        }
+    }
+
+    private static String sha1(String source) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            return HexFormat.of().formatHex(md.digest(source.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new RuntimeException("SHA-1 not available", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.hts.auth.infrastructre.redis;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.HealthCheckResponseBuilder;
+import org.eclipse.microprofile.health.Readiness;
+
+/**
+ * Not ready while the primary circuit is OPEN, unless session reads can still be served by the replica.
+ * OPEN never outlives open-duration: reading the state moves the breaker to HALF_OPEN, so an instance
+ * taken out of rotation gets traffic back and the HALF_OPEN probes decide whether it stays.
+ */
+@Readiness
+@ApplicationScoped
+public class RedisReadinessCheck implements HealthCheck {
+
+    @Inject ResilientRedisClient redis;
+
+    @Override
+    public HealthCheckResponse call() {
+        CircuitBreaker.State state = redis.breakerState();
+        boolean up = state != CircuitBreaker.State.OPEN || redis.isReplicaReadsEnabled();
+        HealthCheckResponseBuilder builder = HealthCheckResponse.named("redis-primary")
+                .status(up)
+                .withData("circuit", state.name())
+                .withData("failure_rate", String.format("%.3f", redis.failureRate()))
+                .withData("hedge_delay_us", redis.hedgeDelayNanos() / 1000)
+                .withData("replica_reads", redis.isReplicaReadsEnabled());
+        return builder.build();
+    }
+}
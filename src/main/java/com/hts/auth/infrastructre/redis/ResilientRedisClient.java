@@ -1,18 +1,33 @@
 package com.hts.auth.infrastructre.redis;
 
+import com.hts.auth.infrastructre.metrics.RedisResilienceMetrics;
+import io.quarkus.redis.client.RedisClientName;
 import io.quarkus.redis.datasource.ReactiveRedisDataSource;
 import io.smallrye.mutiny.Uni;
 import io.vertx.mutiny.redis.client.Response;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
- * Fault-tolerant Redis client with support for multiple Redis instances
- * Provides automatic failover and retry logic for high availability
+ * Resilience layer in front of the primary Redis.
+ * <ul>
+ *   <li>Circuit breaker: primary calls are refused while OPEN (no retry chain during a brown-out),
+ *       HALF_OPEN probes decide when to close again. NOSCRIPT replies are not failures.</li>
+ *   <li>Hedged reads: if the primary has not answered after its recent p95 (clamped to
+ *       [hedge.min-delay, replica.slow-threshold]) a second read is fired and the first answer wins.
+ *       The second read goes to the replica when replica reads are enabled, otherwise to the primary.</li>
+ *   <li>Replica routing: while the breaker is OPEN, reads go straight to the replica.</li>
+ * </ul>
+ * State is exported through RedisResilienceMetrics and RedisReadinessCheck.
+ * Endpoints come from config, so local Redis stand-ins (e.g. behind a latency-injecting proxy) can be
+ * pointed at with quarkus.redis.hosts / quarkus.redis.read-replica.hosts.
  */
 @ApplicationScoped
 public class ResilientRedisClient {
@@ -21,8 +36,11 @@ public class ResilientRedisClient {
 
     @Inject ReactiveRedisDataSource primaryRedis;
 
-    @ConfigProperty(name = "redis.failover.enabled", defaultValue = "false")
-    boolean failoverEnabled;
+    @Inject
+    @RedisClientName("read-replica")
+    ReactiveRedisDataSource replicaRedis;
+
+    @Inject RedisResilienceMetrics metrics;
 
     @ConfigProperty(name = "redis.max.retries", defaultValue = "2")
     int maxRetries;
@@ -30,69 +48,202 @@ public class ResilientRedisClient {
     @ConfigProperty(name = "redis.retry.delay.ms", defaultValue = "50")
     int retryDelayMs;
 
-    private final AtomicInteger failureCount = new AtomicInteger(0);
-    private final AtomicInteger successCount = new AtomicInteger(0);
+    @ConfigProperty(name = "redis.circuit-breaker.enabled", defaultValue = "true")
+    boolean breakerEnabled;
+
+    @ConfigProperty(name = "redis.circuit-breaker.window-size", defaultValue = "100")
+    int windowSize;
+
+    @ConfigProperty(name = "redis.circuit-breaker.minimum-calls", defaultValue = "20")
+    int minimumCalls;
+
+    @ConfigProperty(name = "redis.circuit-breaker.failure-rate-threshold", defaultValue = "0.5")
+    double failureRateThreshold;
+
+    @ConfigProperty(name = "redis.circuit-breaker.open-duration.ms", defaultValue = "5000")
+    long openDurationMs;
+
+    @ConfigProperty(name = "redis.circuit-breaker.half-open-probes", defaultValue = "5")
+    int halfOpenProbes;
+
+    @ConfigProperty(name = "redis.replica.reads.enabled", defaultValue = "false")
+    boolean replicaReadsEnabled;
+
+    @ConfigProperty(name = "redis.replica.slow-threshold.ms", defaultValue = "20")
+    long slowThresholdMs;
+
+    @ConfigProperty(name = "redis.hedge.enabled", defaultValue = "true")
+    boolean hedgeEnabled;
+
+    @ConfigProperty(name = "redis.hedge.min-delay.ms", defaultValue = "2")
+    long hedgeMinDelayMs;
+
+    @ConfigProperty(name = "quarkus.redis.client-type", defaultValue = "standalone")
+    String clientType;
+
+    private CircuitBreaker breaker;
+    private final LatencyWindow primaryLatency = new LatencyWindow(1024, 0.95, 128);
+
+    @PostConstruct
+    void init() {
+        breaker = new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold,
+                TimeUnit.MILLISECONDS.toNanos(openDurationMs), halfOpenProbes, System::nanoTime,
+                state -> {
+                    metrics.recordTransition(state.name());
+                    LOG.warnf("Redis primary circuit breaker → %s", state);
+                });
+        if (replicaReadsEnabled && "cluster".equalsIgnoreCase(clientType)) {
+            // cluster 에서는 replica 가 slot 별로 나뉘어 단일 read-replica endpoint 로 라우팅할 수 없음
+            LOG.warn("redis.replica.reads.enabled is ignored in cluster mode");
+            replicaReadsEnabled = false;
+        }
+        metrics.bind(() -> breakerState().ordinal(), breaker::failureRate, this::hedgeDelayNanos);
+    }
 
     /**
-     * Execute Redis command with automatic retry and failover
+     * Primary 에 명령 실행. breaker 가 닫혀 있을 때만 backoff 재시도, 열려 있으면 즉시 실패
      */
     public Uni<Response> executeWithRetry(String command, String... args) {
-        return executeInternal(command, 0, args);
+        long permit = acquire();
+        if (permit == CircuitBreaker.NO_PERMIT) {
+            return Uni.createFrom().failure(new RedisFailoverException("Redis primary circuit open: " + command));
+        }
+        return primaryRedis.execute(command, args)
+                .onFailure(ResilientRedisClient::isFailure).retry().withBackOff(
+                        Duration.ofMillis(retryDelayMs),
+                        Duration.ofMillis(retryDelayMs * 4L)
+                ).atMost(maxRetries)
+                .onItemOrFailure().invoke((result, e) -> complete(permit, e))
+                .onCancellation().invoke(() -> release(permit))
+                .onFailure(ResilientRedisClient::isFailure).invoke(e ->
+                        LOG.errorf(e, "Redis command failed after %d retries: %s", maxRetries, command));
     }
 
-    private Uni<Response> executeInternal(String command, int attemptNumber, String... args) {
-        if (attemptNumber >= maxRetries) {
-            LOG.errorf("Redis command failed after %d retries: %s", maxRetries, command);
-            failureCount.incrementAndGet();
-            return Uni.createFrom().failure(
-                    new RedisFailoverException("Redis unavailable after " + maxRetries + " retries")
-            );
+    /**
+     * 읽기 전용 조회: primary (breaker + hedge), OPEN 이면 replica.
+     * replica hedge 의 nil 응답은 복제 지연일 수 있으므로 이기지 못함 → primary 응답을 계속 기다림.
+     *
+     * @param primary primary 에서 실행할 호출 (재시도 없음, hedge 가 대신함)
+     * @param replica replica 에서 실행할 읽기 전용 호출 (EVALSHA_RO 등)
+     */
+    public Uni<Response> read(Supplier<Uni<Response>> primary, Supplier<Uni<Response>> replica) {
+        long permit = acquire();
+        if (permit == CircuitBreaker.NO_PERMIT) {
+            if (replicaReadsEnabled) {
+                metrics.incrementReplicaRead("circuit_open");
+                return replica.get();
+            }
+            return Uni.createFrom().failure(new RedisFailoverException("Redis primary circuit open"));
         }
 
-        return primaryRedis.execute(command, args)
-                .onItem().invoke(result -> {
-                    if (attemptNumber > 0) {
-                        LOG.infof("Redis command succeeded on attempt %d: %s", attemptNumber + 1, command);
+        Uni<Response> first = timedPrimary(primary, permit);
+        if (!hedgeEnabled) {
+            return first;
+        }
+
+        String target = replicaReadsEnabled ? "replica" : "primary";
+        Uni<Response> hedge = Uni.createFrom().voidItem()
+                .onItem().delayIt().by(Duration.ofNanos(hedgeDelayNanos()))
+                .flatMap(v -> {
+                    metrics.recordHedge(target, false);
+                    if (replicaReadsEnabled) {
+                        return replica.get().onItem().ifNull().failWith(ReplicaMissException::new);
                     }
-                    successCount.incrementAndGet();
+                    long hedgePermit = acquire();
+                    return hedgePermit != CircuitBreaker.NO_PERMIT ? timedPrimary(primary, hedgePermit)
+                            : Uni.createFrom().failure(new RedisFailoverException("Redis primary circuit open"));
                 })
-                .onFailure().retry().withBackOff(
-                        java.time.Duration.ofMillis(retryDelayMs),
-                        java.time.Duration.ofMillis(retryDelayMs * 4)
-                ).atMost(maxRetries)
-                .onFailure().invoke(e -> {
-                    failureCount.incrementAndGet();
-                    LOG.errorf(e, "Redis command failed: %s (attempt %d/%d)",
-                            command, attemptNumber + 1, maxRetries);
+                .invoke(() -> metrics.recordHedge(target, true));
+
+        // 먼저 도착한 응답 사용, 나머지는 cancel. 둘 다 실패할 때만 실패 (replica miss 는 실패로 취급)
+        return Uni.join().first(first, hedge).withItem();
+    }
+
+    public Uni<Response> executeOnReplica(String command, String... args) {
+        return replicaRedis.execute(command, args);
+    }
+
+    public boolean isReplicaReadsEnabled() {
+        return replicaReadsEnabled;
+    }
+
+    public CircuitBreaker.State breakerState() {
+        return breakerEnabled ? breaker.state() : CircuitBreaker.State.CLOSED;
+    }
+
+    public double failureRate() {
+        return breaker.failureRate();
+    }
+
+    /**
+     * hedge 지연 = primary 최근 p95, [min-delay, slow-threshold] 로 제한
+     */
+    public long hedgeDelayNanos() {
+        long min = TimeUnit.MILLISECONDS.toNanos(hedgeMinDelayMs);
+        long max = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        long p95 = primaryLatency.percentileNanos();
+        // 샘플이 모이기 전에는 slow-threshold 까지 기다림
+        return Math.max(min, p95 == 0 ? max : Math.min(max, p95));
+    }
+
+    private Uni<Response> timedPrimary(Supplier<Uni<Response>> primary, long permit) {
+        long start = System.nanoTime();
+        return primary.get()
+                .onItemOrFailure().invoke((result, e) -> {
+                    primaryLatency.record(System.nanoTime() - start);
+                    complete(permit, e);
+                })
+                .onCancellation().invoke(() -> {
+                    // hedge 에 진 호출: 최소 이만큼 걸렸다는 하한으로 기록 (느린 primary 의 p95 가 유지되도록)
+                    primaryLatency.record(System.nanoTime() - start);
+                    release(permit);
                 });
     }
 
     /**
-     * Get current health metrics
+     * @return breaker permit, 거부면 CircuitBreaker.NO_PERMIT (breaker 비활성이면 항상 0)
      */
-    public RedisHealthMetrics getHealthMetrics() {
-        return new RedisHealthMetrics(
-                successCount.get(),
-                failureCount.get(),
-                calculateAvailabilityPercent()
-        );
+    private long acquire() {
+        if (!breakerEnabled) {
+            return 0;
+        }
+        long permit = breaker.tryAcquire();
+        if (permit == CircuitBreaker.NO_PERMIT) {
+            metrics.incrementShortCircuited();
+        }
+        return permit;
     }
 
-    private double calculateAvailabilityPercent() {
-        int total = successCount.get() + failureCount.get();
-        if (total == 0) return 100.0;
-        return (double) successCount.get() / total * 100.0;
+    private void complete(long permit, Throwable e) {
+        if (!breakerEnabled) {
+            return;
+        }
+        if (e == null || !isFailure(e)) {
+            breaker.onSuccess(permit);
+        } else {
+            breaker.onFailure(permit);
+        }
     }
 
-    public static class RedisHealthMetrics {
-        public final int successCount;
-        public final int failureCount;
-        public final double availabilityPercent;
+    private void release(long permit) {
+        if (breakerEnabled) {
+            breaker.release(permit);
+        }
+    }
 
-        public RedisHealthMetrics(int successCount, int failureCount, double availabilityPercent) {
-            this.successCount = successCount;
-            this.failureCount = failureCount;
-            this.availabilityPercent = availabilityPercent;
+    /**
+     * 장애로 볼 예외인지: NOSCRIPT / MOVED / ASK 는 Redis 가 정상 응답한 것
+     */
+    static boolean isFailure(Throwable e) {
+        return !LuaScriptRegistry.isNoScript(e) && !LuaScriptRegistry.isClusterRedirect(e);
+    }
+
+    /**
+     * replica hedge 가 nil 을 받음: 아직 복제되지 않은 세션일 수 있어 primary 응답을 기다리게 하는 내부 신호
+     */
+    static class ReplicaMissException extends RuntimeException {
+        ReplicaMissException() {
+            super("Replica returned nil", null, false, false);
         }
     }
 
@@ -0,0 +1,56 @@
+package com.hts.auth.infrastructre.redis;
+
+/**
+ * Cluster-safe key layout. Every per-account key carries the hash tag {acct:<accountId>}, so all keys a
+ * script touches for one account live in the same slot.
+ * Session id = "<accountId>:<secret>": the account (and therefore the slot) is recoverable from the id,
+ * the 128-bit secret is what authenticates it.
+ * One session per account, so the session is a single key (session:{acct:<id>} → SessionRecordCodec value)
+ * and no separate acct_sessions set is needed.
+ */
+public final class SessionKeys {
+
+    private static final char SEPARATOR = ':';
+
+    private SessionKeys() {
+    }
+
+    public static String sessionKey(long accountId) {
+        return "session:" + tag(accountId);
+    }
+
+    public static String loginFailKey(long accountId) {
+        return "login_fail:" + tag(accountId);
+    }
+
+    public static String loginLockKey(long accountId) {
+        return "login_lock:" + tag(accountId);
+    }
+
+    public static String sessionId(long accountId, String secret) {
+        return accountId + String.valueOf(SEPARATOR) + secret;
+    }
+
+    /**
+     * @return sessionId 의 accountId, 형식이 맞지 않으면 0
+     */
+    public static long accountIdOf(String sessionId) {
+        int sep = sessionId.indexOf(SEPARATOR);
+        if (sep <= 0 || sep == sessionId.length() - 1) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(sessionId, 0, sep, 10);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    public static String secretOf(String sessionId) {
+        return sessionId.substring(sessionId.indexOf(SEPARATOR) + 1);
+    }
+
+    private static String tag(long accountId) {
+        return "{acct:" + accountId + "}";
+    }
+}
@@ -0,0 +1,72 @@
+package com.hts.auth.infrastructre.redis;
+
+import com.hts.auth.domain.model.SessionRecord;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * Fixed-width binary session value, 44 bytes, big-endian:
+ * <pre>
+ *  offset  size  field
+ *   0       1    version (1)
+ *   1      22    session secret (base64url text, compared by the scripts)
+ *  23       8    accountId
+ *  31       8    issuedAt epoch millis (Redis TIME)
+ *  39       4    client IP hash (CRC32C)
+ *  43       1    flags
+ * </pre>
+ * save_session.lua packs the value with {@link #LUA_FORMAT}, passed in by the caller so Java stays the
+ * single definition of the layout. Lua numbers are doubles, so accountId is sent as two 32-bit halves.
+ */
+public final class SessionRecordCodec {
+
+    public static final int VERSION = 1;
+    public static final int SECRET_LENGTH = 22;
+    public static final int RECORD_LENGTH = 1 + SECRET_LENGTH + 8 + 8 + 4 + 1;
+
+    /** Lua struct.pack format: version, secret, accountId hi, accountId lo, issuedAt, ipHash, flags */
+    public static final String LUA_FORMAT = ">Bc" + SECRET_LENGTH + "I4I4I8I4B";
+
+    public static final int FLAG_NONE = 0;
+
+    private SessionRecordCodec() {
+    }
+
+    public static String accountIdHigh(long accountId) {
+        return Long.toString(accountId >>> 32);
+    }
+
+    public static String accountIdLow(long accountId) {
+        return Long.toString(accountId & 0xffffffffL);
+    }
+
+    public static int ipHash(String ip) {
+        if (ip == null || ip.isEmpty()) {
+            return 0;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(ip.getBytes(StandardCharsets.US_ASCII));
+        return (int) crc.getValue();
+    }
+
+    public static String unsigned(int value) {
+        return Integer.toUnsignedString(value);
+    }
+
+    /**
+     * @return decoded record, 또는 길이/버전이 맞지 않으면 null (이전 형식의 값 포함)
+     */
+    public static SessionRecord decode(byte[] value) {
+        if (value == null || value.length != RECORD_LENGTH || value[0] != VERSION) {
+            return null;
+        }
+        ByteBuffer buf = ByteBuffer.wrap(value, 1 + SECRET_LENGTH, RECORD_LENGTH - 1 - SECRET_LENGTH);
+        long accountId = buf.getLong();
+        long issuedAt = buf.getLong();
+        int ipHash = buf.getInt();
+        int flags = buf.get() & 0xff;
+        return new SessionRecord(accountId, issuedAt, ipHash, flags);
+    }
+}
@@ -1,15 +1,25 @@
 package com.hts.auth.infrastructre.repository;
 
+import com.hts.auth.domain.model.AuthReadResult;
+import com.hts.auth.domain.model.LoginFailureState;
+import com.hts.auth.infrastructre.cache.AccountSnapshotCache;
 import com.hts.auth.infrastructre.metrics.DbMetrics;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jboss.logging.Logger;
+import org.jooq.Condition;
 import org.jooq.DSLContext;
-import org.jooq.Record1;
+import org.jooq.Field;
+import org.jooq.InsertValuesStep4;
+import org.jooq.Record;
+import org.jooq.Record2;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.sql.Timestamp;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.jooq.impl.DSL.*;
 
@@ -21,25 +31,42 @@ public class AuthWriteRepository {
     @Inject DSLContext dsl;
     @Inject DbMetrics metrics;
     @Inject RedisAuthRepository redisRepo;
+    @Inject LoginHistoryWriter historyWriter;
+    @Inject AccountSnapshotCache accountCache;
 
     private static final String ACCOUNTS = "accounts";
-    private static final String LOGIN_HISTORY = "login_history";
+    private static final String STATUS_OUTBOX = "account_status_outbox";
 
-    private final ExecutorService asyncExecutor = Executors.newFixedThreadPool(4);
+    private static final String RESET_WITH_HISTORY_SQL = """
+            WITH reset AS (
+                UPDATE accounts SET failed_attempts = 0
+                WHERE account_id = ? AND failed_attempts <> 0
+                RETURNING account_id
+            ), history AS (
+                INSERT INTO login_history (account_id, status, ip_addr, fail_reason, created_at)
+                VALUES (?, 'SUCCESS', ?::inet, NULL, ?)
+            )
+            SELECT count(*)::int FROM reset
+            """;
 
-    public boolean createAccount(long accountId, String password) {
+    public boolean createAccount(long accountId, String passwordHash) {
         long start = System.nanoTime();
         try {
             int count = dsl.insertInto(table(ACCOUNTS))
                     .set(field("account_id"), accountId)
-                    .set(field("password_hash"), password)
-                    .set(field("salt"), "")
+                    .set(field("password_hash"), passwordHash)
                     .set(field("status"), "ACTIVE")
                     .set(field("failed_attempts"), 0)
                     .onConflictDoNothing()
                     .execute();
 
             metrics.record("create_account", count > 0 ? "CREATED" : "ALREADY_EXISTS", System.nanoTime() - start);
+            if (count > 0) {
+                // 이벤트 직후 첫 로그인이 DB 를 다시 읽지 않도록 snapshot 을 미리 채움
+                accountCache.put(new AuthReadResult(true, accountId, passwordHash, "ACTIVE", 0, null));
+            } else {
+                accountCache.invalidate(accountId);
+            }
             return true;
         } catch (Exception e) {
             metrics.record("create_account", "FAILURE", System.nanoTime() - start);
@@ -48,79 +75,193 @@ public class AuthWriteRepository {
         }
     }
 
+    /**
+     * Multi-row INSERT ... ON CONFLICT DO NOTHING RETURNING account_id.
+     * 실패 시 예외를 던지므로 호출자가 건별 createAccount 로 fallback 한다
+     *
+     * @return 실제로 생성된 account_id
+     */
+    public Set<Long> createAccounts(Map<Long, String> passwordHashes) {
+        long start = System.nanoTime();
+        try {
+            InsertValuesStep4<Record, Object, Object, Object, Object> insert = dsl.insertInto(table(ACCOUNTS),
+                    field("account_id"), field("password_hash"), field("status"), field("failed_attempts"));
+            for (Map.Entry<Long, String> e : passwordHashes.entrySet()) {
+                insert = insert.values(e.getKey(), e.getValue(), "ACTIVE", 0);
+            }
+            Set<Long> created = new HashSet<>(insert.onConflictDoNothing()
+                    .returningResult(field("account_id", Long.class))
+                    .fetch(field("account_id", Long.class)));
+
+            metrics.record("create_accounts_batch", "SUCCESS", System.nanoTime() - start);
+            for (Map.Entry<Long, String> e : passwordHashes.entrySet()) {
+                if (created.contains(e.getKey())) {
+                    accountCache.put(new AuthReadResult(true, e.getKey(), e.getValue(), "ACTIVE", 0, null));
+                } else {
+                    accountCache.invalidate(e.getKey());
+                }
+            }
+            return created;
+        } catch (Exception e) {
+            metrics.record("create_accounts_batch", "FAILURE", System.nanoTime() - start);
+            throw e;
+        }
+    }
+
 
-    public int incrementFailedAttempts(long accountId) {
+    /**
+     * 실패 카운트 증가 + (임계치 도달 시) 잠금을 한 번의 UPDATE ... RETURNING 으로 처리.
+     * SET 의 우변은 모두 갱신 전 값을 참조하므로 failed_attempts + 1 기준으로 잠금 여부가 결정된다.
+     * 잠금이 걸리면 같은 트랜잭션에서 outbox 에 AccountStatusChangedEvent 를 남긴다.
+     */
+    public LoginFailureState recordFailedAttempt(long accountId, int maxFailedAttempts, long lockUntilMillis) {
         long start = System.nanoTime();
         try {
-            Record1<Integer> result = dsl.update(table(ACCOUNTS))
-                    .set(field("failed_attempts"),
-                            field("failed_attempts", Integer.class).plus(1))
-                    .where(field("account_id").eq(accountId))
-                    .returningResult(field("failed_attempts", Integer.class))
-                    .fetchOne();
+            Field<Integer> next = field("failed_attempts", Integer.class).plus(1);
+            Condition reachesLimit = next.ge(maxFailedAttempts);
 
-            metrics.record("increment_failed_attempts", "SUCCESS", System.nanoTime() - start);
-            return result != null ? result.value1() : 0;
+            LoginFailureState state = dsl.transactionResult(cfg -> {
+                DSLContext tx = using(cfg);
+                Record2<Integer, Timestamp> result = tx.update(table(ACCOUNTS))
+                        .set(field("failed_attempts", Integer.class), next)
+                        .set(field("status", String.class),
+                                when(reachesLimit, inline("LOCKED")).otherwise(field("status", String.class)))
+                        .set(field("locked_until", Timestamp.class),
+                                when(reachesLimit, val(toTimestamp(lockUntilMillis))).otherwise(field("locked_until", Timestamp.class)))
+                        .where(field("account_id").eq(accountId))
+                        .returningResult(field("failed_attempts", Integer.class), field("locked_until", Timestamp.class))
+                        .fetchOne();
+
+                if (result == null) {
+                    return new LoginFailureState(0, 0L);
+                }
+                int failed = result.value1();
+                long lockedUntil = failed >= maxFailedAttempts && result.value2() != null ? result.value2().getTime() : 0L;
+                if (lockedUntil > 0) {
+                    insertStatusOutbox(tx, accountId, "LOCKED", "MAX_ATTEMPTS_EXCEEDED");
+                }
+                return new LoginFailureState(failed, lockedUntil);
+            });
+
+            metrics.record("record_failed_attempt", "SUCCESS", System.nanoTime() - start);
+            accountCache.invalidate(accountId);
+            return state;
         } catch (Exception e) {
-            metrics.record("increment_failed_attempts", "FAILURE", System.nanoTime() - start);
-            LOG.errorf(e, "Failed to increment failed_attempts for account_id=%d", accountId);
-            return 0;
+            metrics.record("record_failed_attempt", "FAILURE", System.nanoTime() - start);
+            LOG.errorf(e, "Failed to record failed attempt for account_id=%d", accountId);
+            return new LoginFailureState(0, 0L);
         }
     }
 
     public void lockAccount(long accountId, int failedAttempts, long lockUntilMillis) {
         long start = System.nanoTime();
         try {
-            dsl.update(table(ACCOUNTS))
-                    .set(field("status"), "LOCKED")
-                    .set(field("failed_attempts"), failedAttempts)
-                    .set(field("locked_until"), toTimestamp(lockUntilMillis))
-                    .where(field("account_id").eq(accountId))
-                    .execute();
+            dsl.transaction(cfg -> {
+                DSLContext tx = using(cfg);
+                int count = tx.update(table(ACCOUNTS))
+                        .set(field("status"), "LOCKED")
+                        .set(field("failed_attempts"), failedAttempts)
+                        .set(field("locked_until"), toTimestamp(lockUntilMillis))
+                        .where(field("account_id").eq(accountId))
+                        .execute();
+                if (count > 0) {
+                    insertStatusOutbox(tx, accountId, "LOCKED", "MAX_ATTEMPTS_EXCEEDED");
+                }
+            });
 
             metrics.record("lock_account", "SUCCESS", System.nanoTime() - start);
+            accountCache.invalidate(accountId);
         } catch (Exception e) {
             metrics.record("lock_account", "FAILURE", System.nanoTime() - start);
             LOG.errorf(e, "Failed to lock account_id=%d", accountId);
         }
     }
 
-    private java.sql.Timestamp toTimestamp(long millis) {
-        return new java.sql.Timestamp(millis);
+    /**
+     * account_status_outbox 에 기록. 반드시 상태 변경과 같은 트랜잭션의 DSLContext 로 호출할 것 (OutboxRelay 가 발행)
+     */
+    private void insertStatusOutbox(DSLContext tx, long accountId, String status, String reason) {
+        tx.insertInto(table(STATUS_OUTBOX))
+                .set(field("account_id"), accountId)
+                .set(field("status"), status)
+                .set(field("reason"), reason)
+                .execute();
     }
 
-    public void resetFailedAttempts(long accountId) {
+    private Timestamp toTimestamp(long millis) {
+        return new Timestamp(millis);
+    }
+
+    /**
+     * 로그인 성공 기록: failed_attempts 조건부 reset 과 login_history insert 를 data-modifying CTE 한 문장으로.
+     * 이미 0 이면 accounts 는 건드리지 않음 (dead tuple / row lock 없음)
+     *
+     * @return failed_attempts 를 실제로 reset 했는지
+     */
+    public boolean resetFailedAttempts(long accountId, String ip, long loggedInAtMillis) {
         long start = System.nanoTime();
         try {
-            dsl.update(table(ACCOUNTS))
-                    .set(field("failed_attempts"), 0)
+            int reset = dsl.fetchOne(RESET_WITH_HISTORY_SQL,
+                    accountId, accountId, ip, toTimestamp(loggedInAtMillis)).get(0, Integer.class);
+
+            metrics.record("reset_failed_attempts", reset > 0 ? "SUCCESS" : "UNCHANGED", System.nanoTime() - start);
+            if (reset > 0) {
+                accountCache.invalidate(accountId);
+            }
+            return reset > 0;
+        } catch (Exception e) {
+            metrics.record("reset_failed_attempts", "FAILURE", System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    /**
+     * 값이 실제로 바뀔 때만 UPDATE (같은 값이면 dead tuple / row lock 없음)
+     */
+    public void setFailedAttempts(long accountId, int failedAttempts) {
+        long start = System.nanoTime();
+        try {
+            int count = dsl.update(table(ACCOUNTS))
+                    .set(field("failed_attempts"), failedAttempts)
                     .where(field("account_id").eq(accountId))
+                    .and(field("failed_attempts").ne(failedAttempts))
                     .execute();
 
-            metrics.record("reset_failed_attempts", "SUCCESS", System.nanoTime() - start);
+            metrics.record("set_failed_attempts", count > 0 ? "SUCCESS" : "UNCHANGED", System.nanoTime() - start);
+            if (count > 0) {
+                accountCache.invalidate(accountId);
+            }
         } catch (Exception e) {
-            metrics.record("reset_failed_attempts", "FAILURE", System.nanoTime() - start);
-            LOG.errorf(e, "Failed to reset failed_attempts for account_id=%d", accountId);
+            metrics.record("set_failed_attempts", "FAILURE", System.nanoTime() - start);
+            throw e;
         }
     }
 
-    public void recordLoginHistoryAsync(long accountId, String status, String ip, String reason) {
-        asyncExecutor.submit(() -> {
-            long start = System.nanoTime();
-            try {
-                dsl.insertInto(table(LOGIN_HISTORY))
-                        .set(field("account_id"), accountId)
-                        .set(field("status"), status)
-                        .set(field("ip_addr"), field("?::inet", String.class, ip))
-                        .set(field("fail_reason"), reason)
-                        .execute();
+    /**
+     * 로그인 시 rehash 결과 저장. 그 사이 비밀번호가 바뀌었으면 (expectedHash 불일치) 덮어쓰지 않는다
+     */
+    public boolean updatePasswordHash(long accountId, String expectedHash, String newHash) {
+        long start = System.nanoTime();
+        try {
+            int count = dsl.update(table(ACCOUNTS))
+                    .set(field("password_hash"), newHash)
+                    .where(field("account_id").eq(accountId))
+                    .and(field("password_hash").eq(expectedHash))
+                    .execute();
 
-                metrics.record("record_login_history", "SUCCESS", System.nanoTime() - start);
-            } catch (Exception e) {
-                metrics.record("record_login_history", "FAILURE", System.nanoTime() - start);
-                LOG.errorf(e, "Failed to record login_history for account_id=%d", accountId);
+            metrics.record("update_password_hash", count > 0 ? "SUCCESS" : "UNCHANGED", System.nanoTime() - start);
+            if (count > 0) {
+                accountCache.invalidate(accountId);
             }
-        });
+            return count > 0;
+        } catch (Exception e) {
+            metrics.record("update_password_hash", "FAILURE", System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    public void recordLoginHistoryAsync(long accountId, String status, String ip, String reason) {
+        historyWriter.enqueue(accountId, status, ip, reason);
     }
 
 
@@ -130,6 +271,7 @@ public class AuthWriteRepository {
             int count = dsl.deleteFrom(table(ACCOUNTS))
                     .where(field("account_id").eq(accountId))
                     .execute();
+            accountCache.invalidate(accountId);
 
             metrics.record("delete_account", count > 0 ? "SUCCESS" : "NOT_FOUND", System.nanoTime() - start);
             if (count > 0) {
@@ -144,20 +286,50 @@ public class AuthWriteRepository {
         }
     }
 
-    public void updateAccountStatus(long accountId, String status) {
+    /**
+     * DELETE ... WHERE account_id = ANY(?)
+     *
+     * @return 삭제된 row 수
+     */
+    public int deleteAccounts(List<Long> accountIds) {
         long start = System.nanoTime();
         try {
-            int count = dsl.update(table(ACCOUNTS))
-                    .set(field("status"), status)
-                    .where(field("account_id").eq(accountId))
+            int count = dsl.deleteFrom(table(ACCOUNTS))
+                    .where(field("account_id", Long.class).eq(any(accountIds.toArray(new Long[0]))))
                     .execute();
+            accountIds.forEach(accountCache::invalidate);
+
+            metrics.record("delete_accounts_batch", "SUCCESS", System.nanoTime() - start);
+            return count;
+        } catch (Exception e) {
+            metrics.record("delete_accounts_batch", "FAILURE", System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    public void updateAccountStatus(long accountId, String status) {
+        long start = System.nanoTime();
+        try {
+            int count = dsl.transactionResult(cfg -> {
+                DSLContext tx = using(cfg);
+                int updated = tx.update(table(ACCOUNTS))
+                        .set(field("status"), status)
+                        .where(field("account_id").eq(accountId))
+                        .and(field("status").ne(status))
+                        .execute();
+                if (updated > 0) {
+                    insertStatusOutbox(tx, accountId, status, "STATUS_UPDATED");
+                }
+                return updated;
+            });
+            accountCache.invalidate(accountId);
 
             if (count > 0) {
                 metrics.record("update_account_status", "SUCCESS", System.nanoTime() - start);
                 LOG.infof("Updated account status: account_id=%d, status=%s", accountId, status);
             } else {
-                metrics.record("update_account_status", "NOT_FOUND", System.nanoTime() - start);
-                LOG.warnf("Account not found for status update: account_id=%d", accountId);
+                metrics.record("update_account_status", "UNCHANGED", System.nanoTime() - start);
+                LOG.warnf("Account not found or status unchanged: account_id=%d, status=%s", accountId, status);
             }
         } catch (Exception e) {
             metrics.record("update_account_status", "FAILURE", System.nanoTime() - start);
@@ -169,4 +341,8 @@ public class AuthWriteRepository {
     public Uni<Void> deleteAllSessionsForAccount(long accountId) {
         return redisRepo.deleteAllSessionsForAccount(accountId);
     }
+
+    public Uni<Void> deleteAllSessionsForAccounts(List<Long> accountIds) {
+        return redisRepo.deleteAllSessionsForAccounts(accountIds);
+    }
 }
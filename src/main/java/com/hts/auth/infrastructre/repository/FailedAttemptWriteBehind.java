@@ -0,0 +1,121 @@
+package com.hts.auth.infrastructre.repository;
+
+import com.hts.auth.infrastructre.metrics.DbMetrics;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind of failed-attempt / lock state to accounts.
+ * Only the latest state per account is kept, so a burst of bad passwords on one account becomes a
+ * single UPDATE per flush interval instead of one row-locking UPDATE per attempt.
+ * A reset after a successful login carries that login's history row, and the flush writes both in one
+ * statement (AuthWriteRepository.resetFailedAttempts). If a newer state replaces it before the flush, or
+ * the statement fails, the history row falls back to the group-commit LoginHistoryWriter so it is not lost.
+ */
+@ApplicationScoped
+public class FailedAttemptWriteBehind {
+
+    private static final Logger LOG = Logger.getLogger(FailedAttemptWriteBehind.class);
+
+    @Inject AuthWriteRepository writeRepo;
+    @Inject DbMetrics metrics;
+    @Inject LoginHistoryWriter historyWriter;
+
+    @ConfigProperty(name = "login.failure.write-behind.flush-interval.ms", defaultValue = "200")
+    long flushIntervalMs;
+
+    private final ConcurrentHashMap<Long, PendingState> pending = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    void onStart(@Observes StartupEvent ev) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "failed-attempt-write-behind");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    void onShutdown(@Observes ShutdownEvent ev) {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    public void failedAttempts(long accountId, int failedAttempts) {
+        replace(accountId, new PendingState(failedAttempts, 0L, null));
+    }
+
+    public void lock(long accountId, int failedAttempts, long lockedUntil) {
+        replace(accountId, new PendingState(failedAttempts, lockedUntil, null));
+    }
+
+    /**
+     * 로그인 성공: reset 과 SUCCESS login_history 를 flush 때 한 문장으로 기록
+     */
+    public void resetOnSuccess(long accountId, String ip) {
+        replace(accountId, new PendingState(0, 0L, new SuccessHistory(ip, System.currentTimeMillis())));
+    }
+
+    private void replace(long accountId, PendingState state) {
+        PendingState previous = pending.put(accountId, state);
+        if (previous != null) {
+            recordHistorySeparately(accountId, previous);
+        }
+    }
+
+    private void recordHistorySeparately(long accountId, PendingState state) {
+        if (state.success() != null) {
+            historyWriter.enqueue(accountId, "SUCCESS", state.success().ip(), null);
+        }
+    }
+
+    synchronized void flush() {
+        for (Long accountId : pending.keySet()) {
+            PendingState state = pending.remove(accountId);
+            if (state == null) {
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                if (state.lockedUntil() > 0) {
+                    writeRepo.lockAccount(accountId, state.failedAttempts(), state.lockedUntil());
+                } else if (state.success() != null) {
+                    writeRepo.resetFailedAttempts(accountId, state.success().ip(), state.success().atMillis());
+                } else {
+                    writeRepo.setFailedAttempts(accountId, state.failedAttempts());
+                }
+                metrics.record("failed_attempts_write_behind", "SUCCESS", System.nanoTime() - start);
+            } catch (Exception e) {
+                // history 는 행 단위로 격리하는 LoginHistoryWriter 로 넘기고,
+                // 더 최신 상태가 들어오지 않았다면 상태만 다음 주기에 재시도
+                recordHistorySeparately(accountId, state);
+                pending.putIfAbsent(accountId, new PendingState(state.failedAttempts(), state.lockedUntil(), null));
+                metrics.record("failed_attempts_write_behind", "FAILURE", System.nanoTime() - start);
+                LOG.errorf(e, "Failed to write behind failed_attempts for account_id=%d", accountId);
+            }
+        }
+    }
+
+    private record PendingState(int failedAttempts, long lockedUntil, SuccessHistory success) {
+    }
+
+    private record SuccessHistory(String ip, long atMillis) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.hts.auth.infrastructre.repository;
+
+import com.hts.auth.domain.model.LoginFailureState;
+import com.hts.auth.infrastructre.metrics.RedisMetrics;
+import com.hts.auth.infrastructre.redis.LuaScript;
+import com.hts.auth.infrastructre.redis.LuaScriptRegistry;
+import com.hts.auth.infrastructre.redis.SessionKeys;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Failed-attempt counter and lock state in Redis. accounts.failed_attempts / locked_until stay the durable
+ * copy (written behind by FailedAttemptWriteBehind) and seed the counter when the Redis key is missing.
+ */
+@ApplicationScoped
+public class LoginAttemptRepository {
+
+    private static final Logger LOG = Logger.getLogger(LoginAttemptRepository.class);
+
+    @Inject ReactiveRedisDataSource redis;
+    @Inject LuaScriptRegistry scripts;
+    @Inject RedisMetrics metrics;
+
+    @ConfigProperty(name = "login.failure.counter-ttl.seconds", defaultValue = "86400")
+    int counterTtlSeconds;
+
+    /**
+     * @return lock 만료 시각(millis), 잠겨있지 않거나 Redis 장애 시 0 (DB 의 locked_until 검사가 이어서 적용됨)
+     */
+    public Uni<Long> lockedUntil(long accountId) {
+        long start = System.nanoTime();
+        return redis.execute("GET", SessionKeys.loginLockKey(accountId))
+                .map(result -> {
+                    metrics.recordGet(System.nanoTime() - start);
+                    return result != null ? result.toLong() : 0L;
+                })
+                .onFailure().recoverWithItem(e -> {
+                    metrics.incrementFailure("get_login_lock");
+                    LOG.warnf(e, "Redis lock check failed: account_id=%d", accountId);
+                    return 0L;
+                });
+    }
+
+    public Uni<LoginFailureState> recordFailure(long accountId, int persistedFailedAttempts,
+                                                int maxFailedAttempts, long lockDurationMillis) {
+        long start = System.nanoTime();
+        return scripts.eval(LuaScript.LOGIN_FAILURE, 2, SessionKeys.loginFailKey(accountId), SessionKeys.loginLockKey(accountId),
+                        String.valueOf(persistedFailedAttempts),
+                        String.valueOf(maxFailedAttempts),
+                        String.valueOf(lockDurationMillis),
+                        String.valueOf(counterTtlSeconds))
+                .map(result -> {
+                    metrics.recordSet(System.nanoTime() - start);
+                    return new LoginFailureState(result.get(0).toInteger(), result.get(1).toLong());
+                })
+                .onFailure().invoke(e -> {
+                    metrics.incrementFailure("record_login_failure");
+                    LOG.errorf(e, "Redis recordFailure failed: account_id=%d", accountId);
+                });
+    }
+
+    /**
+     * @return Redis 에 카운터가 있었으면 true
+     */
+    public Uni<Boolean> reset(long accountId) {
+        long start = System.nanoTime();
+        return redis.execute("DEL", SessionKeys.loginFailKey(accountId))
+                .map(result -> {
+                    metrics.recordSet(System.nanoTime() - start);
+                    return result != null && result.toLong() > 0;
+                })
+                .onFailure().recoverWithItem(e -> {
+                    metrics.incrementFailure("reset_login_failure");
+                    LOG.warnf(e, "Redis reset failed: account_id=%d", accountId);
+                    return true;
+                });
+    }
+}
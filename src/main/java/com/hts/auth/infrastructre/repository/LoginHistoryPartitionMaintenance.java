@@ -0,0 +1,169 @@
+package com.hts.auth.infrastructre.repository;
+
+import com.hts.auth.infrastructre.metrics.DbMetrics;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.impl.DSL;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * login_history partition rollover / retention.
+ * Pre-creates partitions up to premake periods ahead (UTC boundaries) and drops or detaches partitions
+ * whose upper bound is older than the retention window. Runs at startup and every check-interval;
+ * a transaction-level advisory lock keeps concurrent instances from racing on DDL.
+ */
+@ApplicationScoped
+public class LoginHistoryPartitionMaintenance {
+
+    private static final Logger LOG = Logger.getLogger(LoginHistoryPartitionMaintenance.class);
+    private static final String LOGIN_HISTORY = "login_history";
+    private static final long ADVISORY_LOCK_KEY = 0x4c48_5041_5254L; // "LHPART"
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    // 파티션 bound 는 pg_get_expr 텍스트에서 추출 후 Postgres 가 timestamptz 로 해석 (MINVALUE → null)
+    private static final String PARTITIONS_SQL = """
+            SELECT c.relname AS name,
+                   (regexp_match(pg_get_expr(c.relpartbound, c.oid), 'FROM \\(''([^'']+)''\\)'))[1]::timestamptz AS range_from,
+                   (regexp_match(pg_get_expr(c.relpartbound, c.oid), 'TO \\(''([^'']+)''\\)'))[1]::timestamptz AS range_to
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'login_history'::regclass
+            """;
+
+    public enum Granularity { DAILY, MONTHLY }
+    public enum RetentionAction { DROP, DETACH }
+
+    @Inject DSLContext dsl;
+    @Inject DbMetrics metrics;
+
+    @ConfigProperty(name = "login-history.partition.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "login-history.partition.granularity", defaultValue = "MONTHLY")
+    Granularity granularity;
+
+    @ConfigProperty(name = "login-history.partition.premake", defaultValue = "3")
+    int premake;
+
+    // 0 이하 = 보존 기간 정리 안 함
+    @ConfigProperty(name = "login-history.partition.retention-days", defaultValue = "0")
+    int retentionDays;
+
+    @ConfigProperty(name = "login-history.partition.retention-action", defaultValue = "DROP")
+    RetentionAction retentionAction;
+
+    @ConfigProperty(name = "login-history.partition.check-interval.minutes", defaultValue = "60")
+    long checkIntervalMinutes;
+
+    private ScheduledExecutorService scheduler;
+
+    void onStart(@Observes StartupEvent ev) {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "login-history-partition-maintenance");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::runSafely, 0, checkIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    void onShutdown(@Observes ShutdownEvent ev) {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void runSafely() {
+        long start = System.nanoTime();
+        try {
+            maintain();
+            metrics.record("partition_maintenance", "SUCCESS", System.nanoTime() - start);
+        } catch (Exception e) {
+            metrics.record("partition_maintenance", "FAILURE", System.nanoTime() - start);
+            LOG.errorf(e, "login_history partition maintenance failed");
+        }
+    }
+
+    void maintain() {
+        dsl.transaction(cfg -> {
+            DSLContext tx = DSL.using(cfg);
+            tx.execute("SELECT pg_advisory_xact_lock(?)", ADVISORY_LOCK_KEY);
+
+            OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+            OffsetDateTime latestUpper = null;
+            OffsetDateTime expiredBefore = now.minusDays(retentionDays);
+
+            for (Record partition : tx.fetch(PARTITIONS_SQL)) {
+                String name = partition.get("name", String.class);
+                OffsetDateTime rangeTo = partition.get("range_to", OffsetDateTime.class);
+                if (rangeTo == null) {
+                    continue;
+                }
+                if (latestUpper == null || rangeTo.isAfter(latestUpper)) {
+                    latestUpper = rangeTo;
+                }
+                if (retentionDays > 0 && !rangeTo.isAfter(expiredBefore)) {
+                    expire(tx, name);
+                }
+            }
+
+            OffsetDateTime next = latestUpper != null ? latestUpper : periodStart(now);
+            OffsetDateTime horizon = periodStart(now);
+            for (int i = 0; i < premake; i++) {
+                horizon = periodEnd(horizon);
+            }
+            while (next.isBefore(horizon)) {
+                OffsetDateTime end = periodEnd(next);
+                create(tx, next, end);
+                next = end;
+            }
+        });
+    }
+
+    private void create(DSLContext tx, OffsetDateTime from, OffsetDateTime to) {
+        String name = LOGIN_HISTORY + "_p" + NAME_FORMAT.format(from);
+        tx.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + LOGIN_HISTORY
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        LOG.infof("Created partition %s [%s, %s)", name, from, to);
+    }
+
+    private void expire(DSLContext tx, String name) {
+        if (retentionAction == RetentionAction.DETACH) {
+            tx.execute("ALTER TABLE " + LOGIN_HISTORY + " DETACH PARTITION " + name);
+            LOG.infof("Detached expired partition %s", name);
+        } else {
+            tx.execute("DROP TABLE " + name);
+            LOG.infof("Dropped expired partition %s", name);
+        }
+    }
+
+    private OffsetDateTime periodStart(OffsetDateTime t) {
+        LocalDate date = t.toLocalDate();
+        if (granularity == Granularity.MONTHLY) {
+            date = date.withDayOfMonth(1);
+        }
+        return date.atStartOfDay().atOffset(ZoneOffset.UTC);
+    }
+
+    // t 이후 첫 period 경계. t 가 경계가 아니면 (예: legacy 파티션 상한) 정렬용 짧은 파티션이 생긴다
+    private OffsetDateTime periodEnd(OffsetDateTime t) {
+        OffsetDateTime start = periodStart(t.withOffsetSameInstant(ZoneOffset.UTC));
+        return granularity == Granularity.MONTHLY ? start.plusMonths(1) : start.plusDays(1);
+    }
+}
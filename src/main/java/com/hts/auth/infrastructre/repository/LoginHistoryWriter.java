@@ -0,0 +1,171 @@
+package com.hts.auth.infrastructre.repository;
+
+import com.hts.auth.infrastructre.metrics.LoginHistoryMetrics;
+import io.quarkus.runtime.ShutdownEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.InsertValuesStepN;
+import org.jooq.Record;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.jooq.impl.DSL.*;
+
+/**
+ * login_history group-commit pipeline.
+ * Producers enqueue into a bounded queue; a single writer thread flushes every batch-size rows or
+ * flush-interval ms with one multi-row INSERT, so history writes hold at most one JDBC connection.
+ */
+@ApplicationScoped
+public class LoginHistoryWriter {
+
+    private static final Logger LOG = Logger.getLogger(LoginHistoryWriter.class);
+    private static final String LOGIN_HISTORY = "login_history";
+    private static final List<Field<?>> COLUMNS = List.of(
+            field("account_id"), field("status"), field("ip_addr"), field("fail_reason"), field("created_at"));
+
+    public enum OverflowPolicy { DROP, BLOCK }
+
+    @Inject DSLContext dsl;
+    @Inject LoginHistoryMetrics metrics;
+
+    @ConfigProperty(name = "login-history.queue-capacity", defaultValue = "65536")
+    int queueCapacity;
+
+    @ConfigProperty(name = "login-history.batch-size", defaultValue = "500")
+    int batchSize;
+
+    @ConfigProperty(name = "login-history.flush-interval.ms", defaultValue = "50")
+    long flushIntervalMs;
+
+    @ConfigProperty(name = "login-history.overflow-policy", defaultValue = "DROP")
+    OverflowPolicy overflowPolicy;
+
+    // BLOCK 정책에서도 호출 스레드(event loop 포함)를 무한정 잡아두지 않도록 최대 대기 후 drop
+    @ConfigProperty(name = "login-history.block-timeout.ms", defaultValue = "10")
+    long blockTimeoutMs;
+
+    private ArrayBlockingQueue<Entry> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    @PostConstruct
+    void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        metrics.bindQueue(queue);
+        running = true;
+        writer = new Thread(this::runLoop, "login-history-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // ShutdownEvent 는 datasource 종료 전에 발생 → 남은 행을 flush 할 수 있다
+    void onShutdown(@Observes ShutdownEvent ev) {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            LOG.warnf("login_history writer stopped with %d rows unflushed", queue.size());
+        }
+    }
+
+    public void enqueue(long accountId, String status, String ip, String reason) {
+        Entry entry = new Entry(accountId, status, ip, reason, System.currentTimeMillis());
+        boolean accepted;
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                accepted = queue.offer(entry, blockTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                accepted = false;
+            }
+        } else {
+            accepted = queue.offer(entry);
+        }
+        if (!accepted) {
+            metrics.incrementDropped();
+        }
+    }
+
+    private void runLoop() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Entry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                running = false;
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Entry> batch) {
+        long start = System.nanoTime();
+        try {
+            insert(batch);
+            metrics.recordFlush(batch.size(), true, System.nanoTime() - start);
+        } catch (Exception ex) {
+            metrics.recordFlush(batch.size(), false, System.nanoTime() - start);
+            LOG.warnf(ex, "Failed to flush %d login_history rows, retrying row by row", batch.size());
+            // 잘못된 행(예: inet 변환 실패) 하나 때문에 배치 전체를 잃지 않도록 행 단위로 격리
+            for (Entry e : batch) {
+                try {
+                    insert(List.of(e));
+                } catch (Exception rowEx) {
+                    LOG.errorf(rowEx, "Failed to record login_history for account_id=%d", e.accountId());
+                }
+            }
+        }
+    }
+
+    private void insert(List<Entry> rows) {
+        InsertValuesStepN<Record> insert = dsl.insertInto(table(LOGIN_HISTORY), COLUMNS);
+        for (Entry e : rows) {
+            insert = insert.values(new Field<?>[]{
+                    val(e.accountId()),
+                    val(e.status()),
+                    field("?::inet", String.class, e.ip()),
+                    val(e.reason(), String.class),
+                    val(new Timestamp(e.createdAtMillis()))
+            });
+        }
+        insert.execute();
+    }
+
+    private record Entry(long accountId, String status, String ip, String reason, long createdAtMillis) {
+    }
+}
@@ -0,0 +1,215 @@
+package com.hts.auth.infrastructre.repository;
+
+import com.hts.auth.domain.model.AuthReadResult;
+import com.hts.auth.domain.model.LoginFailureState;
+import com.hts.auth.infrastructre.cache.AccountSnapshotCache;
+import com.hts.auth.infrastructre.metrics.DbMetrics;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowIterator;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * accounts access on the Vert.x reactive PG client (db.client=reactive).
+ * Queries run on the event loop and are pipelined per connection, so the login path needs no worker hand-off.
+ * Result types and metric names are the same as AuthReadRepository / AuthWriteRepository.
+ */
+@ApplicationScoped
+public class ReactiveAuthRepository {
+
+    private static final Logger LOG = Logger.getLogger(ReactiveAuthRepository.class);
+
+    public enum DbClient { JDBC, REACTIVE }
+
+    private static final String FIND_BY_ACCOUNT_ID =
+            "SELECT account_id, password_hash, status, failed_attempts, locked_until FROM accounts WHERE account_id = $1";
+
+    // SET 우변은 갱신 전 값 기준 (AuthWriteRepository.recordFailedAttempt 와 동일).
+    // 잠금 시 outbox insert 를 data-modifying CTE 로 묶어 한 statement (= 한 트랜잭션) 로 처리
+    private static final String RECORD_FAILED_ATTEMPT =
+            "WITH upd AS (UPDATE accounts SET failed_attempts = failed_attempts + 1, " +
+            "status = CASE WHEN failed_attempts + 1 >= $2 THEN 'LOCKED' ELSE status END, " +
+            "locked_until = CASE WHEN failed_attempts + 1 >= $2 THEN $3 ELSE locked_until END " +
+            "WHERE account_id = $1 RETURNING failed_attempts, locked_until), " +
+            "outbox AS (INSERT INTO account_status_outbox (account_id, status, reason) " +
+            "SELECT $1, 'LOCKED', 'MAX_ATTEMPTS_EXCEEDED' FROM upd WHERE upd.failed_attempts >= $2) " +
+            "SELECT failed_attempts, locked_until FROM upd";
+
+    private static final String CREATE_ACCOUNT =
+            "INSERT INTO accounts (account_id, password_hash, status, failed_attempts) VALUES ($1, $2, 'ACTIVE', 0) " +
+            "ON CONFLICT DO NOTHING";
+
+    private static final String DELETE_ACCOUNT = "DELETE FROM accounts WHERE account_id = $1";
+
+    // 배열 두 개를 UNNEST 해서 한 statement 로 multi-row insert
+    private static final String CREATE_ACCOUNTS =
+            "INSERT INTO accounts (account_id, password_hash, status, failed_attempts) " +
+            "SELECT id, hash, 'ACTIVE', 0 FROM UNNEST($1::bigint[], $2::text[]) AS t(id, hash) " +
+            "ON CONFLICT DO NOTHING RETURNING account_id";
+
+    private static final String DELETE_ACCOUNTS = "DELETE FROM accounts WHERE account_id = ANY($1)";
+
+    @Inject Pool client;
+    @Inject DbMetrics metrics;
+    @Inject AccountSnapshotCache accountCache;
+
+    @ConfigProperty(name = "db.client", defaultValue = "JDBC")
+    DbClient dbClient;
+
+    public boolean isEnabled() {
+        return dbClient == DbClient.REACTIVE;
+    }
+
+    public Uni<AuthReadResult> findByAccountId(long accountId) {
+        long start = System.nanoTime();
+        return client.preparedQuery(FIND_BY_ACCOUNT_ID)
+                .execute(Tuple.of(accountId))
+                .map(rows -> {
+                    RowIterator<Row> it = rows.iterator();
+                    if (!it.hasNext()) {
+                        metrics.record("find_by_account_id", "NOT_FOUND", System.nanoTime() - start);
+                        return AuthReadResult.notFound();
+                    }
+                    Row row = it.next();
+                    metrics.record("find_by_account_id", "SUCCESS", System.nanoTime() - start);
+                    OffsetDateTime lockedUntil = row.getOffsetDateTime("locked_until");
+                    return new AuthReadResult(
+                            true,
+                            row.getLong("account_id"),
+                            row.getString("password_hash"),
+                            row.getString("status"),
+                            row.getInteger("failed_attempts"),
+                            lockedUntil != null ? lockedUntil.toInstant().toEpochMilli() : null
+                    );
+                })
+                .onFailure().invoke(() ->
+                        metrics.record("find_by_account_id", "FAILURE", System.nanoTime() - start));
+    }
+
+    public Uni<LoginFailureState> recordFailedAttempt(long accountId, int maxFailedAttempts, long lockUntilMillis) {
+        long start = System.nanoTime();
+        return client.preparedQuery(RECORD_FAILED_ATTEMPT)
+                .execute(Tuple.of(accountId, maxFailedAttempts, toOffsetDateTime(lockUntilMillis)))
+                .map(rows -> {
+                    metrics.record("record_failed_attempt", "SUCCESS", System.nanoTime() - start);
+                    accountCache.invalidate(accountId);
+                    RowIterator<Row> it = rows.iterator();
+                    if (!it.hasNext()) {
+                        return new LoginFailureState(0, 0L);
+                    }
+                    Row row = it.next();
+                    int failed = row.getInteger("failed_attempts");
+                    OffsetDateTime lockedUntil = row.getOffsetDateTime("locked_until");
+                    return new LoginFailureState(failed,
+                            failed >= maxFailedAttempts && lockedUntil != null ? lockedUntil.toInstant().toEpochMilli() : 0L);
+                })
+                .onFailure().recoverWithItem(e -> {
+                    metrics.record("record_failed_attempt", "FAILURE", System.nanoTime() - start);
+                    LOG.errorf(e, "Failed to record failed attempt for account_id=%d", accountId);
+                    return new LoginFailureState(0, 0L);
+                });
+    }
+
+    public Uni<Boolean> createAccount(long accountId, String passwordHash) {
+        long start = System.nanoTime();
+        return client.preparedQuery(CREATE_ACCOUNT)
+                .execute(Tuple.of(accountId, passwordHash))
+                .map(rows -> {
+                    int count = rows.rowCount();
+                    metrics.record("create_account", count > 0 ? "CREATED" : "ALREADY_EXISTS", System.nanoTime() - start);
+                    if (count > 0) {
+                        accountCache.put(new AuthReadResult(true, accountId, passwordHash, "ACTIVE", 0, null));
+                    } else {
+                        accountCache.invalidate(accountId);
+                    }
+                    return true;
+                })
+                .onFailure().recoverWithItem(e -> {
+                    metrics.record("create_account", "FAILURE", System.nanoTime() - start);
+                    LOG.errorf(e, "Failed to create account for account_id=%d", accountId);
+                    return false;
+                });
+    }
+
+    public Uni<Void> deleteAccount(long accountId) {
+        long start = System.nanoTime();
+        return client.preparedQuery(DELETE_ACCOUNT)
+                .execute(Tuple.of(accountId))
+                .invoke(rows -> {
+                    accountCache.invalidate(accountId);
+                    if (rows.rowCount() > 0) {
+                        metrics.record("delete_account", "SUCCESS", System.nanoTime() - start);
+                        LOG.infof("Deleted account: account_id=%d", accountId);
+                    } else {
+                        metrics.record("delete_account", "NOT_FOUND", System.nanoTime() - start);
+                        LOG.warnf("Account not found for deletion: account_id=%d", accountId);
+                    }
+                })
+                .onFailure().invoke(e -> {
+                    metrics.record("delete_account", "FAILURE", System.nanoTime() - start);
+                    LOG.errorf(e, "Failed to delete account: account_id=%d", accountId);
+                })
+                .replaceWithVoid();
+    }
+
+    /**
+     * @return 실제로 생성된 account_id. 실패 시 예외 그대로 (호출자가 건별 fallback)
+     */
+    public Uni<Set<Long>> createAccounts(Map<Long, String> passwordHashes) {
+        long start = System.nanoTime();
+        Long[] ids = passwordHashes.keySet().toArray(new Long[0]);
+        String[] hashes = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            hashes[i] = passwordHashes.get(ids[i]);
+        }
+        return client.preparedQuery(CREATE_ACCOUNTS)
+                .execute(Tuple.of(ids, hashes))
+                .map(rows -> {
+                    Set<Long> created = new HashSet<>();
+                    for (Row row : rows) {
+                        created.add(row.getLong("account_id"));
+                    }
+                    metrics.record("create_accounts_batch", "SUCCESS", System.nanoTime() - start);
+                    for (Map.Entry<Long, String> e : passwordHashes.entrySet()) {
+                        if (created.contains(e.getKey())) {
+                            accountCache.put(new AuthReadResult(true, e.getKey(), e.getValue(), "ACTIVE", 0, null));
+                        } else {
+                            accountCache.invalidate(e.getKey());
+                        }
+                    }
+                    return created;
+                })
+                .onFailure().invoke(() ->
+                        metrics.record("create_accounts_batch", "FAILURE", System.nanoTime() - start));
+    }
+
+    public Uni<Integer> deleteAccounts(List<Long> accountIds) {
+        long start = System.nanoTime();
+        return client.preparedQuery(DELETE_ACCOUNTS)
+                .execute(Tuple.of(accountIds.toArray(new Long[0])))
+                .map(rows -> {
+                    accountIds.forEach(accountCache::invalidate);
+                    metrics.record("delete_accounts_batch", "SUCCESS", System.nanoTime() - start);
+                    return rows.rowCount();
+                })
+                .onFailure().invoke(() ->
+                        metrics.record("delete_accounts_batch", "FAILURE", System.nanoTime() - start));
+    }
+
+    private static OffsetDateTime toOffsetDateTime(long millis) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+}
@@ -1,70 +1,68 @@
 package com.hts.auth.infrastructre.repository;
 
+import com.hts.auth.domain.model.SessionRecord;
+import com.hts.auth.domain.util.SessionIdGenerator;
+import com.hts.auth.infrastructre.cache.SessionNearCache;
 import com.hts.auth.infrastructre.metrics.RedisMetrics;
-import com.hts.auth.infrastructre.redis.ResilientRedisClient;
-import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import com.hts.auth.infrastructre.redis.LuaScript;
+import com.hts.auth.infrastructre.redis.LuaScriptRegistry;
+import com.hts.auth.infrastructre.redis.SessionKeys;
+import com.hts.auth.infrastructre.redis.SessionRecordCodec;
 import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.redis.client.Response;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
 
 @ApplicationScoped
 public class RedisAuthRepository {
 
     private static final Logger LOG = Logger.getLogger(RedisAuthRepository.class);
 
-    private static final String PREFIX = "session:";
-    private static final String ACCT_PREFIX = "acct_sessions:";
-
-    @Inject ReactiveRedisDataSource redis;
+    @Inject LuaScriptRegistry scripts;
     @Inject RedisMetrics metrics;
-    @Inject ResilientRedisClient resilientRedis;
+    @Inject SessionNearCache nearCache;
 
     @ConfigProperty(name = "redis.failover.enabled", defaultValue = "false")
     boolean failoverEnabled;
 
-    private String saveScript;
-    private String getScript;
-    private String deleteScript;
-    private String deleteAllScript;
+    @ConfigProperty(name = "session.ttl.seconds", defaultValue = "1800")
+    int sessionTtlSeconds;
+
+    // 남은 TTL 이 ttl * fraction 미만일 때만 조회 시 EXPIRE. 1.0 이면 매 조회마다 갱신 (이전 동작)
+    @ConfigProperty(name = "session.ttl.refresh-fraction", defaultValue = "0.5")
+    double refreshFraction;
+
+    private String ttlArg;
+    private String refreshThresholdArg;
 
     @PostConstruct
     void init() {
-        saveScript = loadLua("lua/save_session.lua");
-        getScript = loadLua("lua/get_session.lua");
-        deleteScript = loadLua("lua/delete_session.lua");
-        deleteAllScript = loadLua("lua/delete_all_sessions.lua");
-    }
-
-    private String loadLua(String path) {
-        try (var is = getClass().getClassLoader().getResourceAsStream(path)) {
-            if (is == null) {
-                throw new IllegalStateException("Lua script not found: " + path);
-            }
-            return new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))
-                    .lines()
-                    .collect(Collectors.joining("\n"));
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to load Lua script: " + path, e);
+        if (refreshFraction <= 0 || refreshFraction > 1) {
+            throw new IllegalStateException("session.ttl.refresh-fraction must be in (0, 1]: " + refreshFraction);
         }
+        ttlArg = String.valueOf(sessionTtlSeconds);
+        refreshThresholdArg = String.valueOf((long) Math.ceil(sessionTtlSeconds * refreshFraction));
     }
 
-    public Uni<String> saveSessionAtomic(long accountId, int ttlSeconds) {
+    public Uni<String> saveSessionAtomic(long accountId, String ip) {
         long start = System.nanoTime();
-        String setKey = ACCT_PREFIX + accountId;
-
-        return redis.execute("EVAL", saveScript, "1", setKey,
-                String.valueOf(accountId), String.valueOf(ttlSeconds))
+        String secret = SessionIdGenerator.next();
+
+        return scripts.eval(LuaScript.SAVE_SESSION, 1, SessionKeys.sessionKey(accountId),
+                String.valueOf(accountId), ttlArg, nearCache.channel(), secret,
+                SessionRecordCodec.LUA_FORMAT,
+                SessionRecordCodec.accountIdHigh(accountId), SessionRecordCodec.accountIdLow(accountId),
+                SessionRecordCodec.unsigned(SessionRecordCodec.ipHash(ip)),
+                String.valueOf(SessionRecordCodec.FLAG_NONE))
                 .map(result -> {
                     metrics.recordSet(System.nanoTime() - start);
-                    return result != null ? result.toString() : null;
+                    return SessionKeys.sessionId(accountId, secret);
                 })
                 .onFailure().invoke(e -> {
                     metrics.incrementFailure("save_session");
@@ -72,39 +70,105 @@ public class RedisAuthRepository {
                 });
     }
 
+    /**
+     * @return 세션의 accountId, 없거나 형식이 맞지 않으면 0L
+     */
     public Uni<Long> getSession(String sessionId) {
+        return findSession(sessionId).map(record -> record != null ? record.accountId() : 0L);
+    }
+
+    /**
+     * @return 현재 세션의 record (issuedAt, ipHash, flags 포함), 없거나 형식이 맞지 않으면 null
+     */
+    public Uni<SessionRecord> findSession(String sessionId) {
+        long accountId = SessionKeys.accountIdOf(sessionId);
+        if (accountId == 0L) {
+            return Uni.createFrom().nullItem();
+        }
         long start = System.nanoTime();
-        String sessionKey = PREFIX + sessionId;
 
-        return (failoverEnabled
-                ? resilientRedis.executeWithRetry("EVAL", getScript, "1", sessionKey, "1800")
-                : redis.execute("EVAL", getScript, "1", sessionKey, "1800"))
+        String key = SessionKeys.sessionKey(accountId);
+        String secret = SessionKeys.secretOf(sessionId);
+        Uni<Response> lookup = failoverEnabled
+                ? scripts.evalRead(LuaScript.GET_SESSION, LuaScript.GET_SESSION_RO, 1, key, secret, ttlArg, refreshThresholdArg)
+                : scripts.eval(LuaScript.GET_SESSION, 1, key, secret, ttlArg, refreshThresholdArg);
+
+        return lookup
                 .map(result -> {
                     metrics.recordGet(System.nanoTime() - start);
-                    if (result == null) {
-                        return 0L;
-                    }
-                    try {
-                        return Long.parseLong(result.toString());
-                    } catch (Exception e) {
-                        return 0L;
-                    }
+                    return decode(result, accountId);
                 })
                 .onFailure().invoke(e -> {
                     metrics.recordGet(System.nanoTime() - start);
                     metrics.incrementFailure("get_session");
                     LOG.errorf(e, "Redis getSession failed: session_id=%s", sessionId);
                 })
-                .onFailure().recoverWithItem(0L);
+                .onFailure().recoverWithNull();
+    }
+
+    /**
+     * 여러 세션을 하나의 파이프라인으로 조회. 결과는 sessionIds 순서, 미존재는 0L
+     */
+    public Uni<List<Long>> getSessions(List<String> sessionIds) {
+        long start = System.nanoTime();
+        long[] accountIds = new long[sessionIds.size()];
+        List<String[]> calls = new ArrayList<>(sessionIds.size());
+        for (int i = 0; i < sessionIds.size(); i++) {
+            String sessionId = sessionIds.get(i);
+            accountIds[i] = SessionKeys.accountIdOf(sessionId);
+            if (accountIds[i] != 0L) {
+                calls.add(new String[]{SessionKeys.sessionKey(accountIds[i]), SessionKeys.secretOf(sessionId), ttlArg,
+                        refreshThresholdArg});
+            }
+        }
+
+        return scripts.evalBatch(LuaScript.GET_SESSION, 1, calls)
+                .map(results -> {
+                    metrics.recordGet(System.nanoTime() - start);
+                    List<Long> resolved = new ArrayList<>(accountIds.length);
+                    int next = 0;
+                    for (long accountId : accountIds) {
+                        if (accountId == 0L) {
+                            resolved.add(0L);
+                        } else {
+                            SessionRecord record = decode(results.get(next++), accountId);
+                            resolved.add(record != null ? record.accountId() : 0L);
+                        }
+                    }
+                    return resolved;
+                })
+                .onFailure().invoke(e -> {
+                    metrics.recordGet(System.nanoTime() - start);
+                    metrics.incrementFailure("get_sessions");
+                    LOG.errorf(e, "Redis getSessions failed: count=%d", sessionIds.size());
+                });
+    }
+
+    /**
+     * get_session.lua 응답 {record, refreshed} 해석
+     */
+    private SessionRecord decode(Response result, long accountId) {
+        if (result == null || result.size() < 2) {
+            return null;
+        }
+        metrics.recordTtlRefresh(result.get(1).toInteger() == 1);
+        SessionRecord record = SessionRecordCodec.decode(result.get(0).toBytes());
+        if (record == null || record.accountId() != accountId) {
+            metrics.incrementFailure("session_record_decode");
+            return null;
+        }
+        return record;
     }
 
     public Uni<Void> deleteSession(String sessionId, long accountId) {
         long start = System.nanoTime();
-        String sessionKey = PREFIX + sessionId;
-        String setKey = ACCT_PREFIX + accountId;
 
-        return redis.execute("EVAL", deleteScript, "2", sessionKey, setKey)
-                .invoke(() -> metrics.recordSet(System.nanoTime() - start))
+        return scripts.eval(LuaScript.DELETE_SESSION, 1, SessionKeys.sessionKey(accountId),
+                        SessionKeys.secretOf(sessionId), nearCache.channel(), sessionId)
+                .invoke(() -> {
+                    metrics.recordSet(System.nanoTime() - start);
+                    nearCache.invalidate(sessionId);
+                })
                 .onFailure().invoke(e -> {
                     metrics.incrementFailure("delete_session");
                     LOG.errorf(e, "Redis deleteSession failed: session_id=%s, account_id=%d", sessionId, accountId);
@@ -114,11 +178,12 @@ public class RedisAuthRepository {
 
     public Uni<Void> deleteAllSessionsForAccount(long accountId) {
         long start = System.nanoTime();
-        String setKey = ACCT_PREFIX + accountId;
 
-        return redis.execute("EVAL", deleteAllScript, "1", setKey)
+        return scripts.eval(LuaScript.DELETE_ALL_SESSIONS, 1, SessionKeys.sessionKey(accountId),
+                        String.valueOf(accountId), nearCache.channel())
                 .invoke(result -> {
                     metrics.recordSet(System.nanoTime() - start);
+                    nearCache.invalidateAccount(accountId);
                     LOG.infof("Deleted %s sessions for account_id=%d", result, accountId);
                 })
                 .onFailure().invoke(e -> {
@@ -127,4 +192,27 @@ public class RedisAuthRepository {
                 })
                 .replaceWithVoid();
     }
+
+    /**
+     * delete_all_sessions.lua 를 계정별로 한 번의 pipeline 으로 실행 (Kafka batch 삭제용)
+     */
+    public Uni<Void> deleteAllSessionsForAccounts(List<Long> accountIds) {
+        long start = System.nanoTime();
+        List<String[]> calls = new ArrayList<>(accountIds.size());
+        for (Long accountId : accountIds) {
+            calls.add(new String[]{SessionKeys.sessionKey(accountId), String.valueOf(accountId), nearCache.channel()});
+        }
+
+        return scripts.evalBatch(LuaScript.DELETE_ALL_SESSIONS, 1, calls)
+                .invoke(results -> {
+                    metrics.recordSet(System.nanoTime() - start);
+                    accountIds.forEach(nearCache::invalidateAccount);
+                    LOG.infof("Deleted sessions for %d accounts", accountIds.size());
+                })
+                .onFailure().invoke(e -> {
+                    metrics.incrementFailure("delete_all_sessions_batch");
+                    LOG.errorf(e, "Redis deleteAllSessionsForAccounts failed: accounts=%d", accountIds.size());
+                })
+                .replaceWithVoid();
+    }
 }
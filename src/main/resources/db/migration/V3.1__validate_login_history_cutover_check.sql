@@ -0,0 +1,3 @@
+-- login_history partitioning, step 2/4: 기존 행 검증.
+-- VALIDATE CONSTRAINT 는 SHARE UPDATE EXCLUSIVE 만 잡으므로 스캔 중에도 insert 가 막히지 않는다
+ALTER TABLE login_history VALIDATE CONSTRAINT login_history_before_cutover;
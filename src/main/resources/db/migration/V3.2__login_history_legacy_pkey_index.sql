@@ -0,0 +1,4 @@
+-- login_history partitioning, step 3/4: 파티션 PK (id, created_at) 용 unique index 를 미리 만든다.
+-- CONCURRENTLY 는 트랜잭션 안에서 실행할 수 없으므로 이 migration 에는 이 문장 하나만 둔다
+-- (Flyway 가 CONCURRENTLY 를 감지해 트랜잭션 없이 실행). 실패로 INVALID index 가 남으면 DROP INDEX 후 재시도
+CREATE UNIQUE INDEX CONCURRENTLY login_history_legacy_pkey ON login_history (id, created_at);
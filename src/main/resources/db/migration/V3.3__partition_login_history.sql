@@ -0,0 +1,52 @@
+-- login_history partitioning, step 4/4: created_at 기준 native range partitioning
+-- 기존 테이블은 MINVALUE ~ cutover (V3 의 CHECK 상한) 구간의 파티션으로 편입하고,
+-- 이후 파티션 생성/보존 기간 정리는 LoginHistoryPartitionMaintenance 가 담당한다.
+-- 이 단계의 문장은 모두 카탈로그만 바꾼다: PK 는 V3.2 의 index 로 교체하고 (USING INDEX),
+-- ATTACH 는 검증된 CHECK 가 파티션 구간을 보장하므로 스캔하지 않는다.
+
+ALTER TABLE login_history RENAME TO login_history_legacy;
+ALTER TABLE login_history_legacy
+    DROP CONSTRAINT login_history_pkey,
+    ADD CONSTRAINT login_history_legacy_pkey PRIMARY KEY USING INDEX login_history_legacy_pkey;
+ALTER INDEX idx_login_history_account_created RENAME TO login_history_legacy_account_created_idx;
+ALTER INDEX idx_login_history_created RENAME TO login_history_legacy_created_idx;
+ALTER SEQUENCE login_history_id_seq OWNED BY NONE;
+
+CREATE TABLE login_history (
+    id          BIGINT NOT NULL DEFAULT nextval('login_history_id_seq'),
+    account_id  BIGINT NOT NULL,
+    status      TEXT NOT NULL,
+    ip_addr     INET,
+    fail_reason TEXT,
+    created_at  TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER TABLE login_history
+    ADD CONSTRAINT chk_login_history_status
+        CHECK (status IN ('SUCCESS', 'FAIL', 'LOCKED'));
+
+CREATE INDEX idx_login_history_account_created ON login_history(account_id, created_at DESC);
+CREATE INDEX idx_login_history_created ON login_history(created_at DESC);
+
+-- 상한은 V3 의 CHECK 와 같은 값이어야 스캔이 생략됨 → 제약 정의에서 읽어 온다
+DO $$
+DECLARE
+    cutover timestamptz;
+BEGIN
+    SELECT (regexp_match(pg_get_constraintdef(c.oid), '''([^'']+)'''))[1]::timestamptz
+      INTO STRICT cutover
+      FROM pg_constraint c
+     WHERE c.conrelid = 'login_history_legacy'::regclass
+       AND c.conname = 'login_history_before_cutover';
+
+    EXECUTE format(
+        'ALTER TABLE login_history ATTACH PARTITION login_history_legacy FOR VALUES FROM (MINVALUE) TO (%L)',
+        cutover);
+END
+$$;
+
+-- 파티션 구간이 같은 조건을 보장하므로 더 이상 필요 없음
+ALTER TABLE login_history_legacy DROP CONSTRAINT login_history_before_cutover;
+
+ALTER SEQUENCE login_history_id_seq OWNED BY login_history.id;
@@ -0,0 +1,14 @@
+-- login_history partitioning, step 1/4: 기존 테이블이 legacy 파티션 구간 (MINVALUE ~ cutover) 안에 있음을
+-- CHECK 로 선언해 V3.3 의 ATTACH PARTITION 이 전체 스캔 없이 끝나게 한다.
+-- NOT VALID 이므로 ACCESS EXCLUSIVE 는 카탈로그 변경 동안만 잡히고, 기존 행 검증은 V3.1 에서 별도 트랜잭션으로.
+-- cutover 는 내일 0시(UTC) 다음날: V3.3 이 끝날 때까지 들어오는 insert 도 CHECK 를 통과할 여유
+
+DO $$
+DECLARE
+    cutover timestamptz := (date_trunc('day', now() AT TIME ZONE 'UTC') AT TIME ZONE 'UTC') + interval '2 days';
+BEGIN
+    EXECUTE format(
+        'ALTER TABLE login_history ADD CONSTRAINT login_history_before_cutover CHECK (created_at < %L::timestamptz) NOT VALID',
+        cutover);
+END
+$$;
@@ -0,0 +1,11 @@
+-- AccountStatusChangedEvent transactional outbox
+-- accounts.status 변경과 같은 트랜잭션에서 insert 되고, OutboxRelay 가 FOR UPDATE SKIP LOCKED 로 가져가
+-- Kafka 발행 확인(ack) 후 삭제한다.
+
+CREATE TABLE account_status_outbox (
+    id          BIGSERIAL PRIMARY KEY,
+    account_id  BIGINT NOT NULL,
+    status      TEXT NOT NULL,
+    reason      TEXT,
+    created_at  TIMESTAMPTZ NOT NULL DEFAULT now()
+);
@@ -0,0 +1,10 @@
+-- account_status_outbox: 트랜잭션 밖 발행을 위한 claim 컬럼
+-- OutboxRelay 는 짧은 UPDATE ... RETURNING 으로 행을 claim 하고 (claimed_by / claimed_at), 커밋 후 Kafka 로 발행,
+-- ack 된 행만 삭제한다. ack 없이 claim-timeout 이 지난 행은 다시 claim 된다.
+-- 같은 계정의 더 오래된 행이 남아 있으면 claim 하지 않으므로 (account_id, id) 인덱스로 확인한다.
+
+ALTER TABLE account_status_outbox
+    ADD COLUMN claimed_by TEXT,
+    ADD COLUMN claimed_at TIMESTAMPTZ;
+
+CREATE INDEX idx_account_status_outbox_account_id ON account_status_outbox (account_id, id);
@@ -1,12 +1,16 @@
--- KEYS[1] = acct_sessions:{accountId}
+-- KEYS[1] = session:{acct:<accountId>}
+-- ARGV[1] = accountId
+-- ARGV[2] = invalidation channel
 
-local setKey = KEYS[1]
-local members = redis.call("SMEMBERS", setKey)
-
-for i, sk in ipairs(members) do
-  redis.call("DEL", sk)
+local current = redis.call("GET", KEYS[1])
+if not current then
+    return 0
 end
 
-redis.call("DEL", setKey)
+redis.call("DEL", KEYS[1])
+
+local t = redis.call("TIME")
+local nowMs = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+redis.call("PUBLISH", ARGV[2], nowMs .. "|" .. ARGV[1] .. ":" .. string.sub(current, 2, 23))
 
-return #members
+return 1
@@ -1,10 +1,18 @@
--- KEYS[1] = session:{sessionId}
--- KEYS[2] = acct_sessions:{accountId}
+-- KEYS[1] = session:{acct:<accountId>}
+-- ARGV[1] = session secret
+-- ARGV[2] = invalidation channel
+-- ARGV[3] = sessionId
+-- 현재 세션일 때만 삭제 (이미 새 로그인으로 교체된 세션의 logout 이 새 세션을 지우지 않도록)
 
-local sessionKey = KEYS[1]
-local setKey = KEYS[2]
+local current = redis.call("GET", KEYS[1])
+if not current or string.sub(current, 2, 23) ~= ARGV[1] then
+    return 0
+end
 
-redis.call("DEL", sessionKey)
-redis.call("SREM", setKey, sessionKey)
+redis.call("DEL", KEYS[1])
+
+local t = redis.call("TIME")
+local nowMs = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+redis.call("PUBLISH", ARGV[2], nowMs .. "|" .. ARGV[3])
 
 return 1
@@ -1,17 +1,19 @@
--- KEYS[1] = session:{sessionId}
--- ARGV[1] = ttlSeconds
+-- KEYS[1] = session:{acct:<accountId>}
+-- ARGV[1] = session secret
+-- ARGV[2] = ttlSeconds
+-- ARGV[3] = refresh threshold seconds: 남은 TTL 이 이보다 작을 때만 EXPIRE (lazy sliding expiration)
+-- returns {record, refreshed(0|1)} if the secret is the account's current session, nil otherwise
+-- TTL 은 읽기라 replica / AOF 로 전파되지 않음. 쓰기는 실제로 갱신할 때의 EXPIRE 하나뿐
 
-local sessionKey = KEYS[1]
-local ttl = tonumber(ARGV[1])
-
-local accountId = redis.call("GET", sessionKey)
-if accountId then
-    redis.call("EXPIRE", sessionKey, ttl)
-
-    local setKey = "acct_sessions:" .. accountId
-    redis.call("EXPIRE", setKey, ttl)
+local current = redis.call("GET", KEYS[1])
+if not current or string.sub(current, 2, 23) ~= ARGV[1] then
+    return false
+end
 
-    return accountId
-else
-    return nil
+local refreshed = 0
+if redis.call("TTL", KEYS[1]) < tonumber(ARGV[3]) then
+    redis.call("EXPIRE", KEYS[1], ARGV[2])
+    refreshed = 1
 end
+
+return {current, refreshed}
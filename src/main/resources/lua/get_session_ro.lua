@@ -0,0 +1,11 @@
+-- Read-only get_session for replicas (EVALSHA_RO): same reply shape, never refreshes the TTL
+-- KEYS[1] = session:{acct:<accountId>}
+-- ARGV[1] = session secret
+-- returns {record, 0} if the secret is the account's current session, nil otherwise
+
+local current = redis.call("GET", KEYS[1])
+if not current or string.sub(current, 2, 23) ~= ARGV[1] then
+    return false
+end
+
+return {current, 0}
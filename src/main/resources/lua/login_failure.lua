@@ -0,0 +1,28 @@
+-- KEYS[1] = login_fail:{acct:<accountId>}
+-- KEYS[2] = login_lock:{acct:<accountId>}  (same slot as KEYS[1])
+-- ARGV[1] = failed_attempts persisted in DB (seed when the counter is missing)
+-- ARGV[2] = max failed attempts
+-- ARGV[3] = lock duration millis
+-- ARGV[4] = counter ttl seconds
+-- returns {failedAttempts, lockedUntilMillis (0 = not locked)}
+
+local failKey = KEYS[1]
+local lockKey = KEYS[2]
+
+local lockedUntil = redis.call("GET", lockKey)
+if lockedUntil then
+    return {tonumber(redis.call("GET", failKey) or ARGV[1]), tonumber(lockedUntil)}
+end
+
+redis.call("SET", failKey, ARGV[1], "NX", "EX", ARGV[4])
+local failed = redis.call("INCR", failKey)
+redis.call("EXPIRE", failKey, ARGV[4])
+
+if failed >= tonumber(ARGV[2]) then
+    local t = redis.call("TIME")
+    local lockUntil = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000) + tonumber(ARGV[3])
+    redis.call("SET", lockKey, lockUntil, "PX", ARGV[3])
+    return {failed, lockUntil}
+end
+
+return {failed, 0}
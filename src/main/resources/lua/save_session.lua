@@ -1,22 +1,24 @@
--- KEYS[1] = acct_sessions:{accountId}
+-- KEYS[1] = session:{acct:<accountId>}
 -- ARGV[1] = accountId
 -- ARGV[2] = ttlSeconds
+-- ARGV[3] = invalidation channel
+-- ARGV[4] = new session secret (service 에서 생성한 128-bit random id, base64url 22 chars)
+-- ARGV[5] = record pack format (SessionRecordCodec.LUA_FORMAT)
+-- ARGV[6], ARGV[7] = accountId high / low 32 bits
+-- ARGV[8] = client IP hash (unsigned 32-bit)
+-- ARGV[9] = flags
+-- 계정당 세션 1개: SET ... GET 으로 이전 세션을 교체하고, 있었다면 그 sessionId 를 invalidation 으로 publish
 
-local setKey = KEYS[1]
-local accountId = ARGV[1]
-local ttl = tonumber(ARGV[2])
+local t = redis.call("TIME")
+local nowMs = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
 
-local oldSessions = redis.call("SMEMBERS", setKey)
-for i, oldSessionKey in ipairs(oldSessions) do
-    redis.call("DEL", oldSessionKey)
-end
-redis.call("DEL", setKey)
-
-local newSessionId = redis.call("INCR", "session:id_gen")
-local sessionKey = "session:" .. newSessionId
+local record = struct.pack(ARGV[5], 1, ARGV[4], tonumber(ARGV[6]), tonumber(ARGV[7]), nowMs,
+        tonumber(ARGV[8]), tonumber(ARGV[9]))
+local old = redis.call("SET", KEYS[1], record, "EX", ARGV[2], "GET")
 
-redis.call("SET", sessionKey, accountId .. "," .. accountId, "EX", ttl)
-redis.call("SADD", setKey, sessionKey)
-redis.call("EXPIRE", setKey, ttl)
+if old then
+    -- secret 은 record 의 2..23 byte (SessionRecordCodec 참고)
+    redis.call("PUBLISH", ARGV[3], nowMs .. "|" .. ARGV[1] .. ":" .. string.sub(old, 2, 23))
+end
 
-return tostring(newSessionId)
+return ARGV[4]
@@ -0,0 +1,130 @@
+package com.hts.auth.api;
+
+import com.hts.auth.domain.model.ServiceResult;
+import com.hts.auth.domain.service.AuthQueryService;
+import com.hts.auth.infrastructre.metrics.GrpcMetrics;
+import com.hts.generated.grpc.internal.ValidateSessionStreamReply;
+import com.hts.generated.grpc.internal.ValidateSessionStreamRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ValidateSessionStream against a validateSessions stand-in that is slower than the request rate.
+ */
+class AuthInternalGrpcServiceStreamTest {
+
+    private static final int BATCH_SIZE = 8;
+    private static final int MAX_IN_FLIGHT = 2;
+    private static final int MAX_BUFFERED = 16;
+
+    @Test
+    void slowBatchesApplyBackpressureInsteadOfFailing() {
+        SlowQueryService queryService = new SlowQueryService(Duration.ofMillis(20));
+        AuthInternalGrpcService service = newService(queryService);
+
+        AtomicLong received = new AtomicLong();
+        AtomicLong maxOutstanding = new AtomicLong();
+        Multi<ValidateSessionStreamRequest> requests = Multi.createFrom().range(0, 500)
+                .map(i -> ValidateSessionStreamRequest.newBuilder()
+                        .setRequestId(i)
+                        .setSessionId(i + ":secret")
+                        .build())
+                .onItem().invoke(() -> {
+                    // 받았지만 아직 validateSessions 에 넘기지 않은 요청 수
+                    long outstanding = received.incrementAndGet() - queryService.submitted.get();
+                    maxOutstanding.accumulateAndGet(outstanding, Math::max);
+                });
+
+        AssertSubscriber<ValidateSessionStreamReply> subscriber = service.validateSessionStream(requests)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+
+        subscriber.awaitCompletion(Duration.ofSeconds(30));
+        List<ValidateSessionStreamReply> replies = subscriber.getItems();
+        assertEquals(500, replies.size());
+
+        Set<Long> requestIds = new HashSet<>();
+        for (ValidateSessionStreamReply reply : replies) {
+            requestIds.add(reply.getRequestId());
+            assertTrue(reply.getIsValid());
+            assertEquals(reply.getRequestId(), reply.getAccountId());
+        }
+        assertEquals(500, requestIds.size());
+
+        assertTrue(queryService.maxBatch.get() <= BATCH_SIZE, "batch larger than batch-size");
+        assertTrue(queryService.maxConcurrent.get() <= MAX_IN_FLIGHT, "too many batches in flight");
+        assertTrue(maxOutstanding.get() <= MAX_BUFFERED, "upstream was read past max-buffered");
+    }
+
+    @Test
+    void slowConsumerDoesNotOverflowTimedBatches() throws InterruptedException {
+        AuthInternalGrpcService service = newService(new SlowQueryService(Duration.ofMillis(5)));
+        Multi<ValidateSessionStreamRequest> requests = Multi.createFrom().range(0, 100)
+                .map(i -> ValidateSessionStreamRequest.newBuilder()
+                        .setRequestId(i)
+                        .setSessionId(i + ":secret")
+                        .build());
+
+        AssertSubscriber<ValidateSessionStreamReply> subscriber = service.validateSessionStream(requests)
+                .subscribe().withSubscriber(AssertSubscriber.create(1));
+
+        // window 가 여러 번 지나는 동안 reply 를 하나만 요청 → 이전 구현은 BackPressureFailure
+        Thread.sleep(100);
+        assertNull(subscriber.getFailure());
+
+        subscriber.request(Long.MAX_VALUE);
+        subscriber.awaitCompletion(Duration.ofSeconds(10));
+        assertEquals(100, subscriber.getItems().size());
+    }
+
+    private static AuthInternalGrpcService newService(AuthQueryService queryService) {
+        AuthInternalGrpcService service = new AuthInternalGrpcService();
+        service.queryService = queryService;
+        service.grpcMetrics = new GrpcMetrics(new SimpleMeterRegistry());
+        service.streamBatchSize = BATCH_SIZE;
+        service.streamBatchWindowMs = 1;
+        service.streamMaxInFlightBatches = MAX_IN_FLIGHT;
+        service.streamMaxBuffered = MAX_BUFFERED;
+        return service;
+    }
+
+    private static class SlowQueryService extends AuthQueryService {
+
+        final AtomicLong submitted = new AtomicLong();
+        final AtomicInteger maxBatch = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+        private final AtomicInteger concurrent = new AtomicInteger();
+        private final Duration delay;
+
+        SlowQueryService(Duration delay) {
+            this.delay = delay;
+        }
+
+        @Override
+        public Uni<List<ServiceResult>> validateSessions(List<String> sessionIds) {
+            submitted.addAndGet(sessionIds.size());
+            maxBatch.accumulateAndGet(sessionIds.size(), Math::max);
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+
+            List<ServiceResult> results = new ArrayList<>(sessionIds.size());
+            for (String sessionId : sessionIds) {
+                results.add(ServiceResult.success(sessionId, Long.parseLong(sessionId.substring(0, sessionId.indexOf(':')))));
+            }
+            return Uni.createFrom().item(results)
+                    .onItem().delayIt().by(delay)
+                    .onItem().invoke(concurrent::decrementAndGet);
+        }
+    }
+}
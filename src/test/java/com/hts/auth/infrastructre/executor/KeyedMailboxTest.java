@@ -0,0 +1,139 @@
+package com.hts.auth.infrastructre.executor;
+
+import io.smallrye.mutiny.TimeoutException;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyedMailboxTest {
+
+    private final AtomicInteger coalesced = new AtomicInteger();
+    private final AtomicInteger rejected = new AtomicInteger();
+    private final AtomicInteger timeouts = new AtomicInteger();
+
+    private final KeyedMailbox.Listener listener = new KeyedMailbox.Listener() {
+        @Override
+        public void onStart(long waitNanos) {
+        }
+
+        @Override
+        public void onCoalesced() {
+            coalesced.incrementAndGet();
+        }
+
+        @Override
+        public void onRejected() {
+            rejected.incrementAndGet();
+        }
+
+        @Override
+        public void onTimeout() {
+            timeouts.incrementAndGet();
+        }
+    };
+
+    @Test
+    void runsTasksOfOneKeyInSubmissionOrder() {
+        KeyedMailbox<Integer> mailbox = new KeyedMailbox<>(16, Duration.ofSeconds(5), listener);
+        List<String> events = new CopyOnWriteArrayList<>();
+
+        var first = mailbox.submit(1, null, () -> task(events, 1, 50))
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+        var second = mailbox.submit(1, null, () -> task(events, 2, 0))
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+
+        first.awaitItem().assertItem(1);
+        second.awaitItem().assertItem(2);
+        assertEquals(List.of("start 1", "end 1", "start 2", "end 2"), events);
+        assertEquals(0, mailbox.lanes());
+    }
+
+    @Test
+    void coalescesWaitingTasksWithEqualKey() {
+        KeyedMailbox<Integer> mailbox = new KeyedMailbox<>(16, Duration.ofSeconds(5), listener);
+        AtomicInteger executions = new AtomicInteger();
+        List<String> events = new CopyOnWriteArrayList<>();
+
+        var running = mailbox.submit(1, "a", () -> task(events, 0, 50))
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+        var waiting = mailbox.submit(1, "b", () -> {
+                    executions.incrementAndGet();
+                    return task(events, 7, 0);
+                })
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+        var joined = mailbox.submit(1, "b", () -> {
+                    executions.incrementAndGet();
+                    return task(events, 8, 0);
+                })
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+
+        running.awaitItem().assertItem(0);
+        waiting.awaitItem().assertItem(7);
+        joined.awaitItem().assertItem(7);
+        assertEquals(1, executions.get());
+        assertEquals(1, coalesced.get());
+    }
+
+    @Test
+    void rejectsWhenLaneIsFull() {
+        KeyedMailbox<Integer> mailbox = new KeyedMailbox<>(1, Duration.ofSeconds(5), listener);
+
+        mailbox.submit(1, null, () -> Uni.createFrom().nothing())
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+        mailbox.submit(1, null, () -> Uni.createFrom().item(1))
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+        var third = mailbox.submit(1, null, () -> Uni.createFrom().item(2))
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+
+        third.assertFailedWith(RejectedExecutionException.class);
+        assertEquals(1, rejected.get());
+    }
+
+    @Test
+    void slowTaskTimesOutForCallerButKeepsLaneUntilItFinishes() {
+        KeyedMailbox<Integer> mailbox = new KeyedMailbox<>(16, Duration.ofMillis(50), listener);
+        List<String> events = new CopyOnWriteArrayList<>();
+
+        var slow = mailbox.submit(1, null, () -> task(events, 1, 200))
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+        var next = mailbox.submit(1, null, () -> task(events, 2, 0))
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+
+        slow.awaitFailure(Duration.ofSeconds(5)).assertFailedWith(TimeoutException.class);
+        assertEquals(List.of("start 1"), events);
+
+        // 다음 task 는 timeout 된 task 가 실제로 끝난 뒤에 시작
+        next.awaitItem(Duration.ofSeconds(5)).assertItem(2);
+        assertEquals(List.of("start 1", "end 1", "start 2", "end 2"), events);
+        assertEquals(1, timeouts.get());
+    }
+
+    @Test
+    void keysRunIndependently() {
+        KeyedMailbox<Integer> mailbox = new KeyedMailbox<>(16, Duration.ofSeconds(5), listener);
+
+        mailbox.submit(1, null, () -> Uni.createFrom().nothing())
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+        var other = mailbox.submit(2, null, () -> Uni.createFrom().item(3))
+                .subscribe().withSubscriber(UniAssertSubscriber.create());
+
+        other.awaitItem().assertItem(3);
+    }
+
+    private static Uni<Integer> task(List<String> events, int value, long delayMillis) {
+        return Uni.createFrom().item(() -> {
+                    events.add("start " + value);
+                    return value;
+                })
+                .onItem().delayIt().by(Duration.ofMillis(Math.max(delayMillis, 1)))
+                .invoke(() -> events.add("end " + value));
+    }
+}
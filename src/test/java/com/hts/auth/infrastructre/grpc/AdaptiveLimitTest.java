@@ -0,0 +1,112 @@
+package com.hts.auth.infrastructre.grpc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveLimitTest {
+
+    private static final long BASE_RTT = 1_000_000;
+
+    @Test
+    void growsWhileLatencyStaysAtBaselineAndLimitIsUsed() {
+        AdaptiveLimit limit = new AdaptiveLimit(10, 1, 100, 1000);
+
+        for (int i = 0; i < 5; i++) {
+            fill(limit);
+            completeAll(limit, BASE_RTT);
+        }
+
+        assertTrue(limit.limit() > 10, "limit should grow: " + limit.limit());
+    }
+
+    @Test
+    void doesNotGrowWhenMostlyIdle() {
+        AdaptiveLimit limit = new AdaptiveLimit(10, 1, 100, 1000);
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.onComplete(BASE_RTT, false);
+        }
+
+        assertEquals(10, limit.limit());
+    }
+
+    @Test
+    void shrinksWhenLatencyQueuesUp() {
+        AdaptiveLimit limit = new AdaptiveLimit(50, 1, 100, 1000);
+        assertTrue(limit.tryAcquire());
+        limit.onComplete(BASE_RTT, false);
+
+        // rtt 2배 → queue = 25 > 6 * log10(50)
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.onComplete(2 * BASE_RTT, false);
+        }
+
+        assertEquals(45, limit.limit());
+    }
+
+    @Test
+    void backsOffMultiplicativelyOnDrop() {
+        AdaptiveLimit limit = new AdaptiveLimit(100, 10, 200, 1000);
+
+        assertTrue(limit.tryAcquire());
+        limit.onComplete(BASE_RTT, true);
+        assertEquals(90, limit.limit());
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.onComplete(BASE_RTT, true);
+        }
+        assertEquals(10, limit.limit());
+    }
+
+    @Test
+    void refusesOverLimitAndReleaseFreesSlot() {
+        AdaptiveLimit limit = new AdaptiveLimit(2, 1, 10, 1000);
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+
+        limit.release();
+
+        assertEquals(1, limit.inflight());
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    void baselineIsMinimumOfLastWindowNotLastSample() {
+        AdaptiveLimit limit = new AdaptiveLimit(10, 1, 100, 4);
+        complete(limit, BASE_RTT);
+        complete(limit, 3 * BASE_RTT);
+        complete(limit, 3 * BASE_RTT);
+        // window 의 마지막 샘플이 느려도 기준은 window 최소값
+        complete(limit, 5 * BASE_RTT);
+        assertEquals(BASE_RTT, limit.minRttNanos());
+
+        // 다음 window 전체가 느려지면 기준도 올라감
+        complete(limit, 3 * BASE_RTT);
+        complete(limit, 4 * BASE_RTT);
+        complete(limit, 4 * BASE_RTT);
+        complete(limit, 4 * BASE_RTT);
+        assertEquals(3 * BASE_RTT, limit.minRttNanos());
+    }
+
+    private static void fill(AdaptiveLimit limit) {
+        while (limit.tryAcquire()) {
+            // limit 까지 채움
+        }
+    }
+
+    private static void completeAll(AdaptiveLimit limit, long rttNanos) {
+        while (limit.inflight() > 0) {
+            limit.onComplete(rttNanos, false);
+        }
+    }
+
+    private static void complete(AdaptiveLimit limit, long rttNanos) {
+        assertTrue(limit.tryAcquire());
+        limit.onComplete(rttNanos, false);
+    }
+}
@@ -0,0 +1,124 @@
+package com.hts.auth.infrastructre.grpc;
+
+import com.hts.auth.infrastructre.metrics.GrpcMetrics;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private static final MethodDescriptor.Marshaller<String> MARSHALLER = new MethodDescriptor.Marshaller<>() {
+        @Override
+        public InputStream stream(String value) {
+            return new ByteArrayInputStream(value.getBytes());
+        }
+
+        @Override
+        public String parse(InputStream stream) {
+            return "";
+        }
+    };
+
+    private static final MethodDescriptor<String, String> LOGIN = MethodDescriptor.<String, String>newBuilder()
+            .setType(MethodDescriptor.MethodType.UNARY)
+            .setFullMethodName("auth.AuthClientService/Login")
+            .setRequestMarshaller(MARSHALLER)
+            .setResponseMarshaller(MARSHALLER)
+            .build();
+
+    private MeterRegistry registry;
+    private ConcurrencyLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        interceptor = new ConcurrencyLimitInterceptor();
+        interceptor.metrics = new GrpcMetrics(registry);
+        interceptor.enabled = true;
+        interceptor.initialLimit = 10;
+        interceptor.minLimit = 1;
+        interceptor.maxLimit = 100;
+        interceptor.probeInterval = 1000;
+        interceptor.criticalMethodNames = List.of("ValidateSession");
+        interceptor.criticalHeadroom = 0.8;
+        interceptor.retryPushbackMs = "50";
+    }
+
+    @Test
+    void cancelBeforeCloseBacksOffTheLimit() {
+        FakeCall call = new FakeCall();
+        ServerCall.Listener<String> listener = start(call);
+        assertEquals(1, gauge("auth_grpc_inflight"));
+
+        listener.onCancel();
+
+        assertEquals(0, gauge("auth_grpc_inflight"));
+        assertEquals(9, gauge("auth_grpc_concurrency_limit"));
+    }
+
+    @Test
+    void cancelAfterCloseIsNotCountedTwice() {
+        FakeCall call = new FakeCall();
+        ServerCall.Listener<String> listener = start(call);
+
+        call.delegate.close(Status.OK, new Metadata());
+        listener.onCancel();
+
+        assertEquals(0, gauge("auth_grpc_inflight"));
+        assertEquals(10, gauge("auth_grpc_concurrency_limit"));
+    }
+
+    private ServerCall.Listener<String> start(FakeCall call) {
+        return interceptor.interceptCall(call, new Metadata(), (limitedCall, headers) -> {
+            call.delegate = limitedCall;
+            return new ServerCall.Listener<>() {
+            };
+        });
+    }
+
+    private double gauge(String name) {
+        return registry.get(name).tag("method", LOGIN.getFullMethodName()).gauge().value();
+    }
+
+    private static final class FakeCall extends ServerCall<String, String> {
+        // interceptor 가 감싼 call (handler 가 close 하는 쪽)
+        ServerCall<String, String> delegate;
+
+        @Override
+        public void request(int numMessages) {
+        }
+
+        @Override
+        public void sendHeaders(Metadata headers) {
+        }
+
+        @Override
+        public void sendMessage(String message) {
+        }
+
+        @Override
+        public void close(Status status, Metadata trailers) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public MethodDescriptor<String, String> getMethodDescriptor() {
+            return LOGIN;
+        }
+    }
+}
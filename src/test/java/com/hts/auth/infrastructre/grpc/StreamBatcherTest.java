@@ -0,0 +1,106 @@
+package com.hts.auth.infrastructre.grpc;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamBatcherTest {
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    void tearDown() {
+        timer.shutdownNow();
+    }
+
+    @Test
+    void emitsFullBatchesAndRemainderOnCompletion() {
+        AssertSubscriber<List<Integer>> subscriber = StreamBatcher
+                .batch(Multi.createFrom().range(0, 10), 4, Duration.ofSeconds(10), 8, timer)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+
+        subscriber.awaitCompletion();
+        assertEquals(List.of(List.of(0, 1, 2, 3), List.of(4, 5, 6, 7), List.of(8, 9)), subscriber.getItems());
+    }
+
+    @Test
+    void flushesPartialBatchAfterWindow() {
+        AssertSubscriber<List<Integer>> subscriber = StreamBatcher
+                .batch(Multi.createBy().concatenating().streams(Multi.createFrom().range(0, 3), Multi.createFrom().nothing()),
+                        4, Duration.ofMillis(20), 8, timer)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+
+        subscriber.awaitItems(1);
+        assertEquals(List.of(List.of(0, 1, 2)), subscriber.getItems());
+        subscriber.cancel();
+    }
+
+    @Test
+    void keepsBatchingContinuousStreamAfterWindowExpires() {
+        // 약 2ms 마다 1건, window 40ms → batch 당 ~20건. 만료 후 window 가 다시 시작되지 않으면 1건씩 나감
+        AssertSubscriber<List<Long>> subscriber = StreamBatcher
+                .batch(Multi.createFrom().ticks().every(Duration.ofMillis(2)).select().first(200),
+                        100, Duration.ofMillis(40), 200, timer)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+
+        subscriber.awaitCompletion(Duration.ofSeconds(10));
+        List<List<Long>> batches = subscriber.getItems();
+        assertEquals(200, batches.stream().mapToInt(List::size).sum());
+        assertTrue(batches.size() <= 40, "too many batches: " + batches.size());
+        for (List<Long> batch : batches.subList(0, batches.size() - 1)) {
+            assertTrue(batch.size() >= 5, "batch too small: " + batch.size());
+        }
+    }
+
+    @Test
+    void holdsItemsWithoutDemandAndBoundsUpstreamRequests() throws InterruptedException {
+        AtomicLong upstreamRequested = new AtomicLong();
+        Multi<Integer> upstream = Multi.createFrom().range(0, 1000)
+                .onRequest().invoke(upstreamRequested::addAndGet);
+
+        AssertSubscriber<List<Integer>> subscriber = StreamBatcher
+                .batch(upstream, 4, Duration.ofMillis(1), 8, timer)
+                .subscribe().withSubscriber(AssertSubscriber.create(0));
+
+        // window 가 여러 번 지나도 demand 가 없으면 실패하지도, 더 요청하지도 않음
+        Thread.sleep(50);
+        assertEquals(8, upstreamRequested.get());
+        assertTrue(subscriber.getItems().isEmpty());
+        assertNull(subscriber.getFailure());
+
+        subscriber.request(1);
+        subscriber.awaitItems(1);
+        assertEquals(List.of(0, 1, 2, 3), subscriber.getItems().get(0));
+        assertEquals(12, upstreamRequested.get());
+
+        subscriber.request(Long.MAX_VALUE);
+        subscriber.awaitCompletion();
+        assertEquals(250, subscriber.getItems().size());
+    }
+
+    @Test
+    void propagatesUpstreamFailure() {
+        AssertSubscriber<List<Integer>> subscriber = StreamBatcher
+                .batch(Multi.createFrom().<Integer>failure(new IllegalStateException("boom")),
+                        4, Duration.ofMillis(1), 8, timer)
+                .subscribe().withSubscriber(AssertSubscriber.create(1));
+
+        subscriber.awaitFailure();
+        assertInstanceOf(IllegalStateException.class, subscriber.getFailure());
+    }
+
+    @Test
+    void rejectsBufferSmallerThanBatch() {
+        assertThrows(IllegalArgumentException.class,
+                () -> StreamBatcher.batch(Multi.createFrom().empty(), 8, Duration.ofMillis(1), 4, timer));
+    }
+}
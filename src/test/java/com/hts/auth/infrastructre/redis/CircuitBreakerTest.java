@@ -0,0 +1,137 @@
+package com.hts.auth.infrastructre.redis;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final long OPEN_NANOS = 5_000;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<CircuitBreaker.State> transitions = new ArrayList<>();
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        // window 10, 최소 4 호출, 실패율 50%, probe 2 개
+        breaker = new CircuitBreaker(10, 4, 0.5, OPEN_NANOS, 2, clock::get, transitions::add);
+    }
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        fail(3);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(1.0, breaker.failureRate());
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        succeed(2);
+        fail(2);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertEquals(CircuitBreaker.NO_PERMIT, breaker.tryAcquire());
+        assertEquals(List.of(CircuitBreaker.State.OPEN), transitions);
+    }
+
+    @Test
+    void slidingWindowForgetsOldFailures() {
+        fail(1);
+        succeed(10);
+
+        assertEquals(0.0, breaker.failureRate());
+    }
+
+    @Test
+    void reportsHalfOpenAfterOpenDurationWithoutTraffic() {
+        fail(4);
+        clock.addAndGet(OPEN_NANOS - 1);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        clock.addAndGet(1);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+    }
+
+    @Test
+    void closesAfterAllProbesSucceed() {
+        openAndWait();
+
+        long first = breaker.tryAcquire();
+        long second = breaker.tryAcquire();
+        assertNotEquals(CircuitBreaker.NO_PERMIT, first);
+        assertNotEquals(CircuitBreaker.NO_PERMIT, second);
+        assertEquals(CircuitBreaker.NO_PERMIT, breaker.tryAcquire());
+
+        breaker.onSuccess(first);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        breaker.onSuccess(second);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(0.0, breaker.failureRate());
+    }
+
+    @Test
+    void reopensOnProbeFailure() {
+        openAndWait();
+
+        breaker.onFailure(breaker.tryAcquire());
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertEquals(CircuitBreaker.NO_PERMIT, breaker.tryAcquire());
+    }
+
+    @Test
+    void releaseReturnsProbeSlot() {
+        openAndWait();
+        long first = breaker.tryAcquire();
+        breaker.tryAcquire();
+
+        breaker.release(first);
+
+        assertNotEquals(CircuitBreaker.NO_PERMIT, breaker.tryAcquire());
+    }
+
+    @Test
+    void ignoresOutcomesOfPermitsFromEarlierState() {
+        long slowSuccess = breaker.tryAcquire();
+        long slowFailure = breaker.tryAcquire();
+        fail(4);
+        clock.addAndGet(OPEN_NANOS);
+        long probe = breaker.tryAcquire();
+
+        // CLOSED 때 시작된 호출이 HALF_OPEN 중에 끝남 → probe 로 세지 않음
+        breaker.onSuccess(slowSuccess);
+        breaker.onSuccess(slowSuccess);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        breaker.onFailure(slowFailure);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        breaker.release(slowSuccess);
+
+        breaker.onSuccess(probe);
+        breaker.onSuccess(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    private void openAndWait() {
+        fail(4);
+        clock.addAndGet(OPEN_NANOS);
+    }
+
+    private void succeed(int calls) {
+        for (int i = 0; i < calls; i++) {
+            breaker.onSuccess(breaker.tryAcquire());
+        }
+    }
+
+    private void fail(int calls) {
+        for (int i = 0; i < calls; i++) {
+            breaker.onFailure(breaker.tryAcquire());
+        }
+    }
+}
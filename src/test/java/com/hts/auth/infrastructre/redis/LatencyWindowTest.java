@@ -0,0 +1,53 @@
+package com.hts.auth.infrastructre.redis;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyWindowTest {
+
+    @Test
+    void reportsZeroUntilFirstRecompute() {
+        LatencyWindow window = new LatencyWindow(100, 0.95, 10);
+        for (int i = 1; i < 10; i++) {
+            window.record(i);
+        }
+        assertEquals(0, window.percentileNanos());
+
+        window.record(10);
+        assertEquals(10, window.percentileNanos());
+    }
+
+    @Test
+    void computesPercentileOverFilledPart() {
+        LatencyWindow window = new LatencyWindow(1000, 0.95, 100);
+        for (int i = 100; i >= 1; i--) {
+            window.record(i);
+        }
+        assertEquals(95, window.percentileNanos());
+    }
+
+    @Test
+    void oldSamplesAreOverwritten() {
+        LatencyWindow window = new LatencyWindow(10, 0.5, 10);
+        for (int i = 1; i <= 10; i++) {
+            window.record(i);
+        }
+        assertEquals(5, window.percentileNanos());
+
+        for (int i = 101; i <= 110; i++) {
+            window.record(i);
+        }
+        assertEquals(105, window.percentileNanos());
+    }
+
+    @Test
+    void keepsLastValueBetweenRecomputes() {
+        LatencyWindow window = new LatencyWindow(10, 0.5, 10);
+        for (int i = 1; i <= 10; i++) {
+            window.record(i);
+        }
+        window.record(1_000);
+        assertEquals(5, window.percentileNanos());
+    }
+}
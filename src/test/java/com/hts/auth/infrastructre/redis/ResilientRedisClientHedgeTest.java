@@ -0,0 +1,103 @@
+package com.hts.auth.infrastructre.redis;
+
+import com.hts.auth.infrastructre.metrics.RedisResilienceMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.redis.client.Response;
+import io.vertx.redis.client.impl.types.SimpleStringType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hedged reads against delayed stand-ins for the primary and the replica (no Redis needed).
+ */
+class ResilientRedisClientHedgeTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private SimpleMeterRegistry registry;
+    private ResilientRedisClient client;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        client = new ResilientRedisClient();
+        client.metrics = new RedisResilienceMetrics(registry);
+        client.breakerEnabled = true;
+        client.windowSize = 100;
+        client.minimumCalls = 20;
+        client.failureRateThreshold = 0.5;
+        client.openDurationMs = 5000;
+        client.halfOpenProbes = 5;
+        client.replicaReadsEnabled = true;
+        client.hedgeEnabled = true;
+        client.hedgeMinDelayMs = 1;
+        // 샘플이 없으므로 hedge 지연 = slow-threshold
+        client.slowThresholdMs = 10;
+        client.clientType = "standalone";
+        client.init();
+    }
+
+    @Test
+    void replicaAnswersWhenPrimaryIsSlow() {
+        Response result = client.read(
+                () -> delayed("primary", 500),
+                () -> delayed("replica", 0))
+                .await().atMost(TIMEOUT);
+
+        assertEquals("replica", result.toString());
+        assertEquals(1.0, hedgeCount("won"));
+    }
+
+    @Test
+    void primaryAnswersBeforeHedgeFires() {
+        AtomicInteger replicaCalls = new AtomicInteger();
+        Response result = client.read(
+                () -> delayed("primary", 0),
+                () -> {
+                    replicaCalls.incrementAndGet();
+                    return delayed("replica", 0);
+                })
+                .await().atMost(TIMEOUT);
+
+        assertEquals("primary", result.toString());
+        assertEquals(0, replicaCalls.get());
+    }
+
+    @Test
+    void replicaMissDoesNotWinTheRace() {
+        Response result = client.read(
+                () -> delayed("primary", 200),
+                () -> Uni.createFrom().nullItem())
+                .await().atMost(TIMEOUT);
+
+        assertNotNull(result);
+        assertEquals("primary", result.toString());
+        assertEquals(0.0, hedgeCount("won"));
+    }
+
+    @Test
+    void primaryMissIsAuthoritative() {
+        Response result = client.read(
+                () -> Uni.createFrom().nullItem(),
+                () -> delayed("replica", 0))
+                .await().atMost(TIMEOUT);
+
+        assertNull(result);
+    }
+
+    private double hedgeCount(String result) {
+        var counter = registry.find("auth_redis_hedge_total").tag("result", result).counter();
+        return counter == null ? 0.0 : counter.count();
+    }
+
+    private static Uni<Response> delayed(String value, long millis) {
+        Uni<Response> item = Uni.createFrom().item(Response.newInstance(SimpleStringType.create(value)));
+        return millis == 0 ? item : item.onItem().delayIt().by(Duration.ofMillis(millis));
+    }
+}